@@ -1,12 +1,21 @@
 package io.github.mcengine.extension.addon.artificialintelligence.chatbot;
 
 import io.github.mcengine.api.artificialintelligence.extension.addon.IMCEngineArtificialIntelligenceAddOn;
+import io.github.mcengine.api.artificialintelligence.util.MCEngineArtificialIntelligenceApiUtilAi;
 import io.github.mcengine.api.core.MCEngineCoreApi;
 import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.audit.ChatBotAuditLog;
 import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.command.ChatBotCommand;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.context.ChatBotContextManager;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.context.ChatBotContextProviders;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch.ChatBotDispatcher;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.filter.ChatBotMessageFilter;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.listener.ChatBotListener;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionSpill;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionSync;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.tabcompleter.ChatBotTabCompleter;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.util.ChatBotTokenCache;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.util.ChatBotUtil;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.ChatBotDB;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.mysql.ChatBotDBMySQL;
@@ -14,10 +23,16 @@ import io.github.mcengine.extension.addon.artificialintelligence.chatbot.databas
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.sqlite.ChatBotDBSQLite;
 import org.bukkit.Bukkit;
 import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.HandlerList;
 import org.bukkit.plugin.Plugin;
 import org.bukkit.plugin.PluginManager;
+import org.bukkit.scheduler.BukkitTask;
 
 import java.io.File;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Main class for the MCEngineChatBot AddOn.
@@ -27,6 +42,16 @@ import java.io.File;
  */
 public class ChatBot implements IMCEngineArtificialIntelligenceAddOn {
 
+    /**
+     * Number of warm-up attempts before the AddOn disables itself.
+     */
+    private static final int WARM_UP_ATTEMPTS = 3;
+
+    /**
+     * Delay between warm-up attempts, in server ticks.
+     */
+    private static final long WARM_UP_RETRY_TICKS = 100L;
+
     /**
      * The relative path where the ChatBot config is stored.
      */
@@ -40,16 +65,57 @@ public class ChatBot implements IMCEngineArtificialIntelligenceAddOn {
     /**
      * Database accessor for chatbot-specific persistence (e.g., player emails).
      */
-    private ChatBotDB chatBotDB;
+    private volatile ChatBotDB chatBotDB;
+
+    /**
+     * Dispatcher that sends provider requests under an optional per-platform concurrency cap.
+     */
+    private ChatBotDispatcher dispatcher;
+
+    /**
+     * Registered chat listener; kept so it can be drained and unregistered on unload.
+     */
+    private ChatBotListener listener;
+
+    /**
+     * Audit log of prompts and replies, or {@code null} when disabled.
+     */
+    private ChatBotAuditLog auditLog;
+
+    /**
+     * Idle session eviction and disk spill, or {@code null} when disabled.
+     */
+    private ChatBotSessionSpill sessionSpill;
+
+    /**
+     * Maximum time in milliseconds to wait for in-flight work during shutdown.
+     */
+    private long shutdownTimeoutMs = 5000L;
+
+    /**
+     * Pending or running warm-up task, cancelled on unload.
+     */
+    private volatile BukkitTask warmUpTask;
+
+    /**
+     * Set once unloading starts; warm-up checks it (under {@code this}) before publishing any state.
+     */
+    private boolean unloading;
 
     /**
      * Initializes the ChatBot AddOn.
      * Called automatically by the MCEngine core plugin.
      *
+     * <p>Startup is split in two phases. The synchronous phase only parses the config once and registers
+     * the command, tab completer and listener (in a "warming up" state). Database dialect selection,
+     * schema creation, model validation and token cache warm-up run afterwards as an async Bukkit task,
+     * after which the listener is marked ready. Timings for both phases are logged.</p>
+     *
      * @param plugin The Bukkit plugin instance.
      */
     @Override
     public void onLoad(Plugin plugin) {
+        long start = System.currentTimeMillis();
         this.logger = new MCEngineExtensionLogger(plugin, "AddOn", "MCEngineChatBot");
 
         ChatBotUtil.createConfig(plugin, folderPath);
@@ -63,8 +129,121 @@ public class ChatBot implements IMCEngineArtificialIntelligenceAddOn {
             return;
         }
 
+        try {
+            // Expose group and token settings to command/flows; the DB is exposed once warm-up completes
+            ChatBotCommand.groupMaxMembers = config.getInt("group.max.members", 5);
+            ChatBotCommand.groupMaxHistoryChars = config.getInt("group.max.history.chars", 16384);
+            ChatBotCommand.tokenType = config.getString("token.type", "server");
+
+            // Request dispatcher (optional per-platform concurrency cap)
+            dispatcher = new ChatBotDispatcher(
+                    config.getInt("dispatch.concurrency.per.provider", 0),
+                    config.getLong("dispatch.queue.timeout.ms", 10000L));
+
+            shutdownTimeoutMs = config.getLong("shutdown.timeout.ms", 5000L);
+
+            // Local pre-dispatch filter (blocklist, duplicates, length limits)
+            ChatBotMessageFilter filter = new ChatBotMessageFilter(
+                    config.getStringList("filter.blocklist"),
+                    config.getBoolean("filter.blocklist.whole.words", true),
+                    config.getInt("filter.min.length", 1),
+                    config.getInt("filter.max.length", 1000),
+                    config.getLong("filter.duplicate.window.ms", 10000L),
+                    config.getInt("filter.duplicate.history", 3));
+            ChatBotCommand.filter = filter;
+
+            // Player state snapshots injected into prompts
+            ChatBotContextManager contextManager = null;
+            if (config.getBoolean("context.enable", false)) {
+                ChatBotContextManager.registerProvider(ChatBotContextProviders.nearbyEntities(
+                        config.getDouble("context.nearby.radius", 16.0),
+                        config.getInt("context.nearby.max", 32)));
+                List<String> providers = config.contains("context.providers")
+                        ? config.getStringList("context.providers")
+                        : List.of("location", "biome", "health", "held_item", "nearby_entities");
+                contextManager = new ChatBotContextManager(plugin, providers,
+                        config.getLong("context.cache.ttl.ms", 1000L),
+                        config.getLong("context.capture.timeout.ms", 250L),
+                        config.getInt("context.max.chars", 512),
+                        logger);
+            }
+
+            // Asynchronous audit log (JSON lines under the ChatBot config folder)
+            if (config.getBoolean("audit.enable", false)) {
+                auditLog = new ChatBotAuditLog(
+                        new File(plugin.getDataFolder(), folderPath + "/audit").toPath(),
+                        config.getInt("audit.buffer.size", 8192),
+                        config.getLong("audit.rotate.max.bytes", 10L * 1024 * 1024),
+                        config.getLong("audit.rotate.interval.ms", 24L * 60 * 60 * 1000),
+                        config.getInt("audit.max.files", 30),
+                        logger);
+                ChatBotCommand.auditLog = auditLog;
+            }
+
+            // Idle session eviction with spill files under the ChatBot config folder
+            if (config.getBoolean("session.idle.enable", true)) {
+                sessionSpill = new ChatBotSessionSpill(
+                        new File(plugin.getDataFolder(), folderPath + "/sessions").toPath(),
+                        config.getLong("session.idle.timeout.ms", 30L * 60 * 1000),
+                        config.getLong("session.memory.max.bytes", 64L * 1024 * 1024),
+                        config.getLong("session.idle.sweep.interval.ms", 60000L),
+                        logger);
+                ChatBotCommand.sessionSpill = sessionSpill;
+            }
+
+            // Register events (listener starts in a warming-up state)
+            listener = new ChatBotListener(plugin, folderPath, config, logger, dispatcher, filter, contextManager, auditLog,
+                    sessionSpill);
+            PluginManager pluginManager = Bukkit.getPluginManager();
+            pluginManager.registerEvents(listener, plugin);
+
+            // Register dispatcher command under the "chatbot" subcommand of /ai
+            String namespace = "ai";
+            String subcommand = "chatbot";
+
+            ChatBotCommand.plugin = plugin;
+            ChatBotCommand.active = true;
+            MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
+            api.registerSubCommand(namespace, subcommand, new ChatBotCommand());
+            api.registerSubTabCompleter(namespace, subcommand, new ChatBotTabCompleter());
+
+            logger.info("ChatBot dispatcher subcommand registered successfully.");
+            logger.info("ChatBot startup sync phase completed in " + (System.currentTimeMillis() - start) + " ms.");
+
+            // Players online now (e.g. after a reload) get their personal tokens preloaded during warm-up
+            List<UUID> onlinePlayers = "player".equalsIgnoreCase(ChatBotCommand.tokenType)
+                    ? Bukkit.getOnlinePlayers().stream().map(Player::getUniqueId).toList()
+                    : List.of();
+            ChatBotListener warmingListener = listener;
+            unloading = false;
+            warmUpTask = Bukkit.getScheduler().runTaskAsynchronously(plugin,
+                    () -> warmUp(plugin, config, warmingListener, onlinePlayers, 1));
+
+        } catch (Exception e) {
+            logger.warning("Failed to initialize ChatBot AddOn: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Asynchronous startup phase: selects the database dialect, ensures the schema, validates
+     * registered models, warms the token cache and finally marks the listener ready.
+     * <p>
+     * A failed attempt is retried up to {@value #WARM_UP_ATTEMPTS} times; after that the AddOn unloads
+     * itself so the listener does not stay in the warming-up state forever. Nothing is published if
+     * unloading has started in the meantime.
+     *
+     * @param plugin        The Bukkit plugin instance.
+     * @param config        The parsed ChatBot config.
+     * @param listener      The listener to mark ready.
+     * @param onlinePlayers Players whose personal tokens are preloaded.
+     * @param attempt       1-based attempt number.
+     */
+    private void warmUp(Plugin plugin, YamlConfiguration config, ChatBotListener listener, List<UUID> onlinePlayers, int attempt) {
+        long start = System.currentTimeMillis();
         try {
             // Initialize database for chatbot usage (emails, logs, etc.) with dialect selection
+            ChatBotDB chatBotDB;
             String dbType;
             try {
                 dbType = plugin.getConfig().getString("database.type", "sqlite");
@@ -82,30 +261,86 @@ public class ChatBot implements IMCEngineArtificialIntelligenceAddOn {
                 }
             }
             chatBotDB.ensureSchema();
+            long schemaDone = System.currentTimeMillis();
 
-            // Expose DB to command/flows
-            ChatBotCommand.db = chatBotDB;
+            // Validate that at least one platform/model is available for conversations
+            Map<String, Map<String, ?>> models = MCEngineArtificialIntelligenceApiUtilAi.getAllModels();
+            int modelCount = 0;
+            for (Map<String, ?> platformModels : models.values()) {
+                modelCount += platformModels.size();
+            }
+            if (modelCount == 0) {
+                logger.warning("No AI models are registered; players will not be able to start a conversation.");
+            }
+            long validationDone = System.currentTimeMillis();
 
-            // Register events
-            PluginManager pluginManager = Bukkit.getPluginManager();
-            pluginManager.registerEvents(new ChatBotListener(plugin, folderPath, logger), plugin);
+            // Preload personal tokens of players who were already online, so their first message skips the lookup
+            int cachedTokens = 0;
+            try {
+                for (UUID playerId : onlinePlayers) {
+                    for (String platform : models.keySet()) {
+                        if (ChatBotTokenCache.load(playerId, platform) != null) cachedTokens++;
+                    }
+                }
+            } catch (Exception e) {
+                // Best effort: tokens are loaded on demand anyway
+                logger.warning("Failed to preload player tokens: " + e.getMessage());
+            }
+            long cacheDone = System.currentTimeMillis();
 
-            // Register dispatcher command under the "chatbot" subcommand of /ai
-            String namespace = "ai";
-            String subcommand = "chatbot";
+            // Cross-server session continuity (requires a database shared by all backend servers)
+            ChatBotSessionSync sessionSync = config.getBoolean("session.sync.enable", false)
+                    ? new ChatBotSessionSync(chatBotDB, config.getInt("session.sync.max.history.chars", 32768),
+                            config.getLong("session.sync.join.timeout.ms", 10000L), logger)
+                    : null;
 
-            MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
-            api.registerSubCommand(namespace, subcommand, new ChatBotCommand());
-            api.registerSubTabCompleter(namespace, subcommand, new ChatBotTabCompleter());
+            // Expose DB to command/flows and open the listener, unless unloading has already begun
+            synchronized (this) {
+                if (unloading) return;
+                this.chatBotDB = chatBotDB;
+                ChatBotCommand.db = chatBotDB;
+                listener.markReady(sessionSync);
+                warmUpTask = null;
+            }
 
-            logger.info("ChatBot dispatcher subcommand registered successfully.");
+            logger.info("ChatBot startup async phase completed in " + (System.currentTimeMillis() - start) + " ms "
+                    + "(schema " + (schemaDone - start) + " ms, model validation " + (validationDone - schemaDone) + " ms, "
+                    + "token cache " + (cacheDone - validationDone) + " ms, "
+                    + models.size() + " platforms / " + modelCount + " models / " + cachedTokens + " tokens).");
 
         } catch (Exception e) {
-            logger.warning("Failed to initialize ChatBot AddOn: " + e.getMessage());
+            logger.warning("ChatBot startup warm-up failed (attempt " + attempt + "/" + WARM_UP_ATTEMPTS + "): " + e.getMessage());
             e.printStackTrace();
+            scheduleAfterFailure(plugin, config, listener, onlinePlayers, attempt);
         }
     }
 
+    /**
+     * Retries a failed warm-up after a short delay, or unloads the AddOn on the main thread once all
+     * attempts are used up.
+     *
+     * @param plugin        The Bukkit plugin instance.
+     * @param config        The parsed ChatBot config.
+     * @param listener      The listener to mark ready.
+     * @param onlinePlayers Players whose personal tokens are preloaded.
+     * @param attempt       The attempt that failed.
+     */
+    private void scheduleAfterFailure(Plugin plugin, YamlConfiguration config, ChatBotListener listener,
+                                      List<UUID> onlinePlayers, int attempt) {
+        synchronized (this) {
+            if (unloading || !plugin.isEnabled()) return;
+            if (attempt < WARM_UP_ATTEMPTS) {
+                warmUpTask = Bukkit.getScheduler().runTaskLaterAsynchronously(plugin,
+                        () -> warmUp(plugin, config, listener, onlinePlayers, attempt + 1), WARM_UP_RETRY_TICKS);
+                return;
+            }
+            warmUpTask = null;
+        }
+        logger.warning("ChatBot could not start after " + WARM_UP_ATTEMPTS + " attempts and is being disabled. "
+                + "Check the database settings and restart the server.");
+        Bukkit.getScheduler().runTask(plugin, () -> onDisload(plugin));
+    }
+
     /**
      * Sets the identifier for this ChatBot AddOn.
      *
@@ -119,10 +354,64 @@ public class ChatBot implements IMCEngineArtificialIntelligenceAddOn {
     /**
      * Called when the plugin is disabled or the AddOn is being unloaded.
      *
+     * <p>Shuts down in a bounded sequence: cancel a pending warm-up, stop accepting chat (the listener stays registered and keeps
+     * cancelling session chat), save online players' sessions when {@code session.sync.enable} is on (players are
+     * only kicked after plugins are disabled, so quit events come too late), drain in-flight AI requests and
+     * quit/mail/save tasks until {@code shutdown.timeout.ms}, end remaining sessions, unregister the listener, stop the dispatcher so late requests fail fast,
+     * flush the audit log and clear the state shared with the still-registered command.</p>
+     *
      * @param plugin the Bukkit plugin instance
      */
     @Override
     public void onDisload(Plugin plugin) {
-        // No custom shutdown logic needed.
+        if (listener == null) return;
+
+        long start = System.currentTimeMillis();
+
+        // Stop a pending warm-up; a running one sees the flag before publishing anything
+        synchronized (this) {
+            unloading = true;
+            if (warmUpTask != null) warmUpTask.cancel();
+            warmUpTask = null;
+        }
+
+        ChatBotCommand.active = false;
+        boolean drained = listener.shutdown(shutdownTimeoutMs);
+        if (!drained) {
+            logger.warning("In-flight ChatBot work did not finish within " + shutdownTimeoutMs + " ms and was cancelled.");
+        }
+        listener.endSessions();
+        HandlerList.unregisterAll(listener);
+
+        if (dispatcher != null) dispatcher.shutdown();
+
+        if (auditLog != null) {
+            auditLog.close(shutdownTimeoutMs);
+            if (auditLog.getDropped() > 0) {
+                logger.warning("Audit log dropped " + auditLog.getDropped() + " records this session.");
+            }
+            auditLog = null;
+        }
+
+        if (sessionSpill != null) {
+            sessionSpill.close();
+            sessionSpill = null;
+        }
+
+        if (ChatBotCommand.filter != null) {
+            logger.info("Pre-dispatch filter saved " + ChatBotCommand.filter.getSavedCalls() + " provider calls this session.");
+        }
+
+        // The /ai chatbot command stays registered with the core; drop everything it could reach
+        ChatBotCommand.db = null;
+        ChatBotCommand.filter = null;
+        ChatBotCommand.auditLog = null;
+        ChatBotCommand.sessionSpill = null;
+
+        listener = null;
+        dispatcher = null;
+        chatBotDB = null;
+
+        logger.info("ChatBot shut down in " + (System.currentTimeMillis() - start) + " ms.");
     }
 }
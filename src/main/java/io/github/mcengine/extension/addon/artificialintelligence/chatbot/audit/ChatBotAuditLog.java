@@ -0,0 +1,379 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.audit;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only audit log of chatbot prompts and replies.
+ * <p>
+ * Callers enqueue records into a bounded in-memory buffer without blocking; when the buffer is full
+ * the record is dropped and counted. A single writer thread drains the buffer in batches into
+ * {@code audit.log} (JSON lines) through a {@link FileChannel} opened in append mode. The active file
+ * is rotated when it exceeds the size limit or age limit, where the age of a file reopened after a
+ * restart counts from its first record; rotated segments are gzip-compressed and only the newest
+ * {@code maxFiles} are kept. A segment that could not be compressed stays uncompressed, is retried on
+ * the next rotation and still counts towards {@code maxFiles}.
+ */
+public class ChatBotAuditLog {
+
+    /**
+     * Name of the active log file.
+     */
+    private static final String ACTIVE_FILE = "audit.log";
+
+    /**
+     * Maximum records written per batch.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    /**
+     * How long the writer waits for new records before re-checking rotation and shutdown, in milliseconds.
+     */
+    private static final long POLL_MS = 200L;
+
+    /**
+     * Directory holding the active file and rotated segments.
+     */
+    private final Path directory;
+
+    /**
+     * Size in bytes after which the active file is rotated.
+     */
+    private final long maxBytes;
+
+    /**
+     * Age in milliseconds after which the active file is rotated.
+     */
+    private final long maxAgeMs;
+
+    /**
+     * Number of compressed segments kept.
+     */
+    private final int maxFiles;
+
+    /**
+     * Logger for diagnostics.
+     */
+    private final MCEngineExtensionLogger logger;
+
+    /**
+     * Bounded buffer between producers and the writer thread.
+     */
+    private final BlockingQueue<JsonObject> buffer;
+
+    /**
+     * JSON serializer.
+     */
+    private final Gson gson = new GsonBuilder().disableHtmlEscaping().create();
+
+    /**
+     * Records successfully written.
+     */
+    private final LongAdder written = new LongAdder();
+
+    /**
+     * Records dropped because the buffer was full or writing failed.
+     */
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Writer thread.
+     */
+    private final Thread writer;
+
+    /**
+     * Whether the log is accepting and writing records.
+     */
+    private volatile boolean running = true;
+
+    /**
+     * Active file channel; only touched by the writer thread.
+     */
+    private FileChannel channel;
+
+    /**
+     * Current size of the active file; only touched by the writer thread.
+     */
+    private long activeSize;
+
+    /**
+     * Time the active file was started (first record, or creation); only touched by the writer thread.
+     */
+    private long activeSince;
+
+    /**
+     * Creates the audit log and starts its writer thread.
+     *
+     * @param directory  directory for log files (created if missing)
+     * @param bufferSize maximum buffered records before dropping
+     * @param maxBytes   rotate after this many bytes
+     * @param maxAgeMs   rotate after this many milliseconds
+     * @param maxFiles   compressed segments to keep
+     * @param logger     logger for diagnostics
+     */
+    public ChatBotAuditLog(Path directory, int bufferSize, long maxBytes, long maxAgeMs, int maxFiles,
+                           MCEngineExtensionLogger logger) {
+        this.directory = directory;
+        this.maxBytes = Math.max(1024L, maxBytes);
+        this.maxAgeMs = Math.max(60_000L, maxAgeMs);
+        this.maxFiles = Math.max(1, maxFiles);
+        this.logger = logger;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(16, bufferSize));
+
+        this.writer = new Thread(this::runWriter, "MCEngineChatBot-Audit");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Enqueues an audit record. Never blocks.
+     *
+     * @param type     record type (e.g. {@code prompt}, {@code reply}, {@code error})
+     * @param playerId player UUID (group leader for group records)
+     * @param player   player or group label
+     * @param platform AI platform
+     * @param model    AI model
+     * @param text     prompt, reply or error text
+     */
+    public void record(String type, UUID playerId, String player, String platform, String model, String text) {
+        if (!running) {
+            dropped.increment();
+            return;
+        }
+        JsonObject json = new JsonObject();
+        json.addProperty("ts", System.currentTimeMillis());
+        json.addProperty("type", type);
+        json.addProperty("uuid", playerId != null ? playerId.toString() : null);
+        json.addProperty("player", player);
+        json.addProperty("platform", platform);
+        json.addProperty("model", model);
+        json.addProperty("text", text);
+        if (!buffer.offer(json)) dropped.increment();
+    }
+
+    /** @return records written since startup */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /** @return records dropped since startup */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stops accepting records, writes what is buffered and closes the file.
+     *
+     * @param timeoutMs maximum time to wait for the writer, in milliseconds
+     */
+    public void close(long timeoutMs) {
+        // No interrupt: FileChannel is interruptible and would be closed mid-write.
+        running = false;
+        try {
+            writer.join(Math.max(1L, timeoutMs));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writer loop: drains the buffer in batches until closed, then flushes the remainder.
+     */
+    private void runWriter() {
+        List<JsonObject> batch = new ArrayList<>(BATCH_SIZE);
+        try {
+            Files.createDirectories(directory);
+            open();
+            while (running || !buffer.isEmpty()) {
+                try {
+                    JsonObject first = running ? buffer.poll(POLL_MS, TimeUnit.MILLISECONDS) : buffer.poll();
+                    if (first != null) {
+                        batch.add(first);
+                        buffer.drainTo(batch, BATCH_SIZE - 1);
+                        write(batch);
+                        batch.clear();
+                    }
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+                if (System.currentTimeMillis() - activeSince >= maxAgeMs && activeSize > 0) rotate();
+            }
+        } catch (IOException | RuntimeException e) {
+            if (logger != null) logger.warning("[ChatBotAudit] Audit log stopped: " + e.getMessage());
+            running = false;
+            dropped.add(batch.size() + buffer.size());
+            buffer.clear();
+        } finally {
+            closeChannel();
+        }
+    }
+
+    /**
+     * Writes a batch as JSON lines in a single channel write and rotates if the size limit is reached.
+     *
+     * @param batch records to write
+     * @throws IOException if the write fails
+     */
+    private void write(List<JsonObject> batch) throws IOException {
+        StringBuilder lines = new StringBuilder(batch.size() * 256);
+        for (JsonObject json : batch) {
+            lines.append(gson.toJson(json)).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        while (bytes.hasRemaining()) {
+            activeSize += channel.write(bytes);
+        }
+        written.add(batch.size());
+        if (activeSize >= maxBytes) rotate();
+    }
+
+    /**
+     * Opens (or reopens) the active file in append mode.
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    private void open() throws IOException {
+        channel = FileChannel.open(directory.resolve(ACTIVE_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        activeSize = channel.size();
+        activeSince = activeSize > 0 ? startedAt(directory.resolve(ACTIVE_FILE)) : System.currentTimeMillis();
+    }
+
+    /**
+     * Determines when an existing active file was started, so age-based rotation survives restarts.
+     * Uses the timestamp of the first record, falling back to the file's creation time.
+     *
+     * @param file active file
+     * @return start time in epoch milliseconds
+     */
+    private long startedAt(Path file) {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String first = reader.readLine();
+            if (first != null) {
+                JsonObject json = gson.fromJson(first, JsonObject.class);
+                if (json != null && json.has("ts")) return json.get("ts").getAsLong();
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // Unreadable first line: fall back to the file's creation time.
+        }
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).creationTime().toMillis();
+        } catch (IOException e) {
+            return System.currentTimeMillis();
+        }
+    }
+
+    /**
+     * Rotates the active file: renames it, gzip-compresses pending segments, prunes old segments
+     * and opens a fresh active file.
+     *
+     * @throws IOException if the new active file cannot be opened
+     */
+    private void rotate() throws IOException {
+        closeChannel();
+        String stamp = new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(new Date());
+        Path segment = directory.resolve("audit-" + stamp + ".log");
+        try {
+            Files.move(directory.resolve(ACTIVE_FILE), segment);
+            compressPending();
+            prune();
+        } catch (IOException e) {
+            if (logger != null) logger.warning("[ChatBotAudit] Rotation failed: " + e.getMessage());
+        }
+        open();
+    }
+
+    /**
+     * Compresses every uncompressed rotated segment, including ones left by an earlier failure.
+     * A segment that fails is kept uncompressed and retried on the next rotation.
+     *
+     * @throws IOException if the directory cannot be listed
+     */
+    private void compressPending() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "audit-*.log")) {
+            stream.forEach(segments::add);
+        }
+        for (Path segment : segments) {
+            try {
+                compress(segment);
+            } catch (IOException e) {
+                if (logger != null) logger.warning("[ChatBotAudit] Failed to compress " + segment.getFileName() + ": " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Gzip-compresses a rotated segment and deletes the uncompressed copy.
+     * A partially written archive is removed on failure.
+     *
+     * @param segment rotated segment
+     * @throws IOException if compression fails
+     */
+    private void compress(Path segment) throws IOException {
+        Path gz = segment.resolveSibling(segment.getFileName() + ".gz");
+        try (InputStream in = Files.newInputStream(segment);
+             OutputStream out = new GZIPOutputStream(Files.newOutputStream(gz), 64 * 1024)) {
+            in.transferTo(out);
+        } catch (IOException e) {
+            Files.deleteIfExists(gz);
+            throw e;
+        }
+        Files.delete(segment);
+    }
+
+    /**
+     * Deletes the oldest segments, compressed or not, beyond {@code maxFiles}.
+     *
+     * @throws IOException if the directory cannot be listed
+     */
+    private void prune() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "audit-*.{log,log.gz}")) {
+            stream.forEach(segments::add);
+        }
+        if (segments.size() <= maxFiles) return;
+        segments.sort(null);
+        for (int i = 0; i < segments.size() - maxFiles; i++) {
+            Files.deleteIfExists(segments.get(i));
+        }
+    }
+
+    /**
+     * Closes the active channel, ignoring errors.
+     */
+    private void closeChannel() {
+        if (channel == null) return;
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Nothing useful to do on close failure.
+        }
+        channel = null;
+    }
+}
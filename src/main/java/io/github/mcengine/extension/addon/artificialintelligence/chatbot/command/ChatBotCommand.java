@@ -2,13 +2,25 @@ package io.github.mcengine.extension.addon.artificialintelligence.chatbot.comman
 
 import io.github.mcengine.api.artificialintelligence.util.MCEngineArtificialIntelligenceApiUtilAi;
 import io.github.mcengine.api.artificialintelligence.util.MCEngineArtificialIntelligenceApiUtilBotManager;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.audit.ChatBotAuditLog;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.ChatBotDB;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.filter.ChatBotMessageFilter;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.group.ChatBotGroupManager;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.group.ChatBotGroupSession;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.render.ChatBotReplyCache;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionSpill;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.util.ChatBotTokenCache;
+import net.md_5.bungee.api.chat.BaseComponent;
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
+import org.bukkit.plugin.IllegalPluginAccessException;
+import org.bukkit.plugin.Plugin;
 
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 
@@ -19,15 +31,61 @@ import java.util.UUID;
  * <ul>
  *     <li>/ai chatbot set email your@email.com</li>
  *     <li>/ai chatbot &lt;platform&gt; &lt;model&gt;</li>
+ *     <li>/ai chatbot group create &lt;platform&gt; &lt;model&gt;</li>
+ *     <li>/ai chatbot group join &lt;leader&gt;</li>
+ *     <li>/ai chatbot group leave</li>
+ *     <li>/ai chatbot page &lt;reply&gt; &lt;page&gt;</li>
+ *     <li>/ai chatbot stats</li>
  * </ul>
  */
 public class ChatBotCommand implements CommandExecutor {
 
     /**
      * Shared database accessor for chatbot-specific data (e.g., player email).
-     * Must be initialized before use.
+     * Set once the asynchronous startup phase completes; {@code null} while warming up.
      */
-    public static ChatBotDB db;
+    public static volatile ChatBotDB db;
+
+    /**
+     * Whether the add-on is loaded. The command stays registered with the core after unload,
+     * so it must refuse to start sessions once this is cleared.
+     */
+    public static volatile boolean active;
+
+    /**
+     * Owning plugin, used to schedule token lookups off the main thread.
+     */
+    public static Plugin plugin;
+
+    /**
+     * Maximum number of members (leader included) for shared group conversations.
+     */
+    public static int groupMaxMembers = 5;
+
+    /**
+     * Maximum characters of shared history kept per group conversation.
+     */
+    public static int groupMaxHistoryChars = 16384;
+
+    /**
+     * Configured token type ({@code server} or {@code player}).
+     */
+    public static String tokenType = "server";
+
+    /**
+     * Local pre-dispatch filter, exposed for {@code /ai chatbot stats}.
+     */
+    public static ChatBotMessageFilter filter;
+
+    /**
+     * Audit log, exposed for {@code /ai chatbot stats}; {@code null} when disabled.
+     */
+    public static ChatBotAuditLog auditLog;
+
+    /**
+     * Idle session eviction, exposed for {@code /ai chatbot stats}; {@code null} when disabled.
+     */
+    public static ChatBotSessionSpill sessionSpill;
 
     /**
      * Handles execution of the /ai chatbot subcommand.
@@ -40,11 +98,37 @@ public class ChatBotCommand implements CommandExecutor {
      */
     @Override
     public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        // Handle: /ai chatbot stats (console allowed)
+        if (args.length >= 2 && args[1].equalsIgnoreCase("stats")) {
+            if (!sender.hasPermission("mcengine.artificialintelligence.addon.chatbot.stats")) {
+                sender.sendMessage(ChatColor.RED + "You do not have permission to view chatbot stats.");
+                return true;
+            }
+            sendStats(sender);
+            return true;
+        }
+
         if (!(sender instanceof Player player)) {
             sender.sendMessage(ChatColor.RED + "Only players can use this command.");
             return true;
         }
 
+        if (!active) {
+            player.sendMessage(ChatColor.RED + "❌ The AI chatbot is not available right now.");
+            return true;
+        }
+
+        // Handle: /ai chatbot page <reply> <page> (served from the render cache)
+        if (args.length >= 2 && args[1].equalsIgnoreCase("page")) {
+            sendPage(player, args);
+            return true;
+        }
+
+        if (db == null) {
+            player.sendMessage(ChatColor.YELLOW + "⏳ The AI chatbot is still warming up. Please try again in a moment.");
+            return true;
+        }
+
         UUID playerId = player.getUniqueId();
 
         // Handle: /ai chatbot set email <email>
@@ -59,11 +143,20 @@ public class ChatBotCommand implements CommandExecutor {
             return true;
         }
 
+        // Handle: /ai chatbot group <create|join|leave> ...
+        if (args.length >= 2 && args[1].equalsIgnoreCase("group")) {
+            handleGroup(player, args);
+            return true;
+        }
+
         // Validate minimum args
         if (args.length < 3) {
             player.sendMessage(ChatColor.RED + "Usage:");
             player.sendMessage(ChatColor.GRAY + "/ai chatbot {platform} {model}");
             player.sendMessage(ChatColor.GRAY + "/ai chatbot set email {your@email.com}");
+            player.sendMessage(ChatColor.GRAY + "/ai chatbot group create {platform} {model}");
+            player.sendMessage(ChatColor.GRAY + "/ai chatbot group join {leader}");
+            player.sendMessage(ChatColor.GRAY + "/ai chatbot group leave");
             return true;
         }
 
@@ -77,28 +170,300 @@ public class ChatBotCommand implements CommandExecutor {
 
         String model = args[2];
 
-        // Get registered models
-        Map<String, Map<String, ?>> registeredModels = MCEngineArtificialIntelligenceApiUtilAi.getAllModels();
+        if (!isRegisteredModel(player, platform, model)) return true;
 
-        if (!registeredModels.containsKey(platform)) {
-            player.sendMessage(ChatColor.RED + "Unknown platform: " + ChatColor.WHITE + platform);
+        if (ChatBotGroupManager.isInGroup(playerId)) {
+            player.sendMessage(ChatColor.RED + "You are in a group conversation. Use /ai chatbot group leave first.");
             return true;
         }
 
-        Map<String, ?> modelsForPlatform = registeredModels.get(platform);
-        if (!modelsForPlatform.containsKey(model)) {
-            player.sendMessage(ChatColor.RED + "Unknown model: " + ChatColor.WHITE + model +
-                    ChatColor.GRAY + " for platform " + ChatColor.WHITE + platform);
-            return true;
+        withPlayerToken(player, platform, () -> startConversation(player, platform, model));
+        return true;
+    }
+
+    /**
+     * Starts a personal conversation once all validations have passed.
+     *
+     * @param player   the player
+     * @param platform AI platform
+     * @param model    AI model
+     */
+    private static void startConversation(Player player, String platform, String model) {
+        // Re-checked: the token lookup may have completed a few ticks after the command
+        if (ChatBotGroupManager.isInGroup(player.getUniqueId())) {
+            player.sendMessage(ChatColor.RED + "You are in a group conversation. Use /ai chatbot group leave first.");
+            return;
         }
 
         // All validations passed → Start conversation
         MCEngineArtificialIntelligenceApiUtilBotManager.setModel(player, platform, model);
         MCEngineArtificialIntelligenceApiUtilBotManager.startConversation(player);
         MCEngineArtificialIntelligenceApiUtilBotManager.activate(player);
+        if (sessionSpill != null) sessionSpill.touch(player);
 
         player.sendMessage(ChatColor.GREEN + "You are now chatting with the AI.");
         player.sendMessage(ChatColor.GRAY + "Type your message in chat. Type 'quit' to end the conversation.");
+    }
+
+    /**
+     * Handles the {@code /ai chatbot group} subcommands.
+     *
+     * @param player the executing player
+     * @param args   arguments passed after "/ai chatbot"
+     */
+    private void handleGroup(Player player, String[] args) {
+        UUID playerId = player.getUniqueId();
+        String action = args.length >= 3 ? args[2].toLowerCase() : "";
+
+        switch (action) {
+            case "create" -> {
+                if (args.length < 5) {
+                    player.sendMessage(ChatColor.RED + "Usage: /ai chatbot group create {platform} {model}");
+                    return;
+                }
+                if (MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) {
+                    player.sendMessage(ChatColor.RED + "Type 'quit' to end your current AI conversation first.");
+                    return;
+                }
+                String platform = args[3];
+                String model = args[4];
+                if (!isRegisteredModel(player, platform, model)) return;
+                withPlayerToken(player, platform, () -> createGroup(player, platform, model));
+            }
+            case "join" -> {
+                if (args.length < 4) {
+                    player.sendMessage(ChatColor.RED + "Usage: /ai chatbot group join {leader}");
+                    return;
+                }
+                if (MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) {
+                    player.sendMessage(ChatColor.RED + "Type 'quit' to end your current AI conversation first.");
+                    return;
+                }
+                Player leader = Bukkit.getPlayerExact(args[3]);
+                if (leader == null) {
+                    player.sendMessage(ChatColor.RED + "Player not found: " + ChatColor.WHITE + args[3]);
+                    return;
+                }
+                ChatBotGroupSession session = ChatBotGroupManager.join(playerId, leader.getUniqueId());
+                if (session == null) {
+                    player.sendMessage(ChatColor.RED + "Unable to join: no open group led by "
+                            + ChatColor.WHITE + leader.getName() + ChatColor.RED + ", it is full, or you are already in one.");
+                    return;
+                }
+                broadcast(session.getMembers(), ChatColor.GREEN + player.getName() + " joined the group conversation.");
+                player.sendMessage(ChatColor.GRAY + "Type your message in chat. Type 'quit' to leave the group.");
+            }
+            case "leave" -> leaveGroup(player);
+            default -> {
+                player.sendMessage(ChatColor.RED + "Usage:");
+                player.sendMessage(ChatColor.GRAY + "/ai chatbot group create {platform} {model}");
+                player.sendMessage(ChatColor.GRAY + "/ai chatbot group join {leader}");
+                player.sendMessage(ChatColor.GRAY + "/ai chatbot group leave");
+            }
+        }
+    }
+
+    /**
+     * Creates a group conversation led by the player once all validations have passed.
+     *
+     * @param player   the leader
+     * @param platform AI platform
+     * @param model    AI model
+     */
+    private static void createGroup(Player player, String platform, String model) {
+        // Re-checked: the token lookup may have completed a few ticks after the command
+        if (MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) {
+            player.sendMessage(ChatColor.RED + "Type 'quit' to end your current AI conversation first.");
+            return;
+        }
+
+        ChatBotGroupSession session = ChatBotGroupManager.create(player.getUniqueId(), platform, model, groupMaxMembers,
+                groupMaxHistoryChars);
+        if (session == null) {
+            player.sendMessage(ChatColor.RED + "You are already in a group conversation.");
+            return;
+        }
+        player.sendMessage(ChatColor.GREEN + "Group conversation created. Others can join with "
+                + ChatColor.WHITE + "/ai chatbot group join " + player.getName());
+        player.sendMessage(ChatColor.GRAY + "Type your message in chat. Type 'quit' to leave the group.");
+    }
+
+    /**
+     * Sends a cached page of a previously rendered reply.
+     *
+     * @param player the player
+     * @param args   command arguments ({@code page <reply> <page>})
+     */
+    private void sendPage(Player player, String[] args) {
+        if (args.length < 4) {
+            player.sendMessage(ChatColor.RED + "Usage: /ai chatbot page <reply> <page>");
+            return;
+        }
+        int page;
+        try {
+            page = Integer.parseInt(args[3]);
+        } catch (NumberFormatException e) {
+            player.sendMessage(ChatColor.RED + "Invalid page number: " + args[3]);
+            return;
+        }
+        BaseComponent[] components = ChatBotReplyCache.getPage(player.getUniqueId(), args[2], page);
+        if (components == null) {
+            player.sendMessage(ChatColor.RED + "That reply is no longer available.");
+            return;
+        }
+        player.spigot().sendMessage(components);
+    }
+
+    /**
+     * Sends chatbot runtime statistics to the sender.
+     *
+     * @param sender the command sender
+     */
+    private void sendStats(CommandSender sender) {
+        sender.sendMessage(ChatColor.GOLD + "ChatBot Stats");
+        if (filter != null) {
+            sender.sendMessage(ChatColor.GRAY + "Provider calls saved by filter: " + ChatColor.WHITE + filter.getSavedCalls()
+                    + ChatColor.GRAY + " (allowed " + filter.getCount(ChatBotMessageFilter.Result.ALLOWED) + ")");
+            for (ChatBotMessageFilter.Result result : ChatBotMessageFilter.Result.values()) {
+                if (result == ChatBotMessageFilter.Result.ALLOWED) continue;
+                sender.sendMessage(ChatColor.GRAY + "  " + result.name().toLowerCase() + ": " + ChatColor.WHITE + filter.getCount(result));
+            }
+        }
+        if (auditLog != null) {
+            sender.sendMessage(ChatColor.GRAY + "Audit records written: " + ChatColor.WHITE + auditLog.getWritten()
+                    + ChatColor.GRAY + ", dropped: " + ChatColor.WHITE + auditLog.getDropped());
+        }
+        if (sessionSpill != null) {
+            long maxBytes = sessionSpill.getMaxBytes();
+            sender.sendMessage(ChatColor.GRAY + "Resident sessions: " + ChatColor.WHITE + sessionSpill.getResidentSessions()
+                    + ChatColor.GRAY + " (~" + ChatColor.WHITE + (sessionSpill.getResidentBytes() / 1024) + " KiB"
+                    + ChatColor.GRAY + (maxBytes > 0 ? " of " + (maxBytes / 1024) + " KiB" : "") + ")");
+            sender.sendMessage(ChatColor.GRAY + "Group sessions: " + ChatColor.WHITE + ChatBotGroupManager.getGroupCount()
+                    + ChatColor.GRAY + " (~" + (ChatBotGroupManager.getResidentBytes() / 1024) + " KiB of the above)");
+            sender.sendMessage(ChatColor.GRAY + "Spilled sessions: " + ChatColor.WHITE + sessionSpill.getSpilledSessions()
+                    + ChatColor.GRAY + " (evicted " + sessionSpill.getEvictions() + ", reloaded " + sessionSpill.getReloads() + ")");
+        } else {
+            // Idle eviction is off: measure online players' sessions directly
+            int sessions = 0;
+            long personalBytes = 0;
+            for (Player online : Bukkit.getOnlinePlayers()) {
+                if (!MCEngineArtificialIntelligenceApiUtilBotManager.isActive(online)) continue;
+                sessions++;
+                String history = MCEngineArtificialIntelligenceApiUtilBotManager.get(online);
+                personalBytes += history == null ? 0L : 2L * history.length();
+            }
+            long groupBytes = ChatBotGroupManager.getResidentBytes();
+            sender.sendMessage(ChatColor.GRAY + "Resident sessions: " + ChatColor.WHITE + sessions
+                    + ChatColor.GRAY + " (~" + ChatColor.WHITE + ((personalBytes + groupBytes) / 1024) + " KiB"
+                    + ChatColor.GRAY + ", idle eviction off)");
+            sender.sendMessage(ChatColor.GRAY + "Group sessions: " + ChatColor.WHITE + ChatBotGroupManager.getGroupCount()
+                    + ChatColor.GRAY + " (~" + (groupBytes / 1024) + " KiB of the above)");
+        }
+    }
+
+    /**
+     * Removes the player from their group conversation and notifies affected members.
+     * If the player leads the group, it is disbanded.
+     *
+     * @param player the leaving player
+     */
+    public static void leaveGroup(Player player) {
+        ChatBotGroupSession session = ChatBotGroupManager.get(player.getUniqueId());
+        List<UUID> removed = ChatBotGroupManager.leave(player.getUniqueId());
+        if (session == null || removed.isEmpty()) {
+            player.sendMessage(ChatColor.RED + "You are not in a group conversation.");
+            return;
+        }
+
+        if (session.isClosed()) {
+            broadcast(removed, ChatColor.RED + "❌ The group conversation was closed by " + player.getName() + ".");
+        } else {
+            player.sendMessage(ChatColor.RED + "❌ You left the group conversation.");
+            broadcast(session.getMembers(), ChatColor.GRAY + player.getName() + " left the group conversation.");
+        }
+    }
+
+    /**
+     * Sends a message to every online player in the given list.
+     *
+     * @param members member UUIDs
+     * @param message message to send
+     */
+    public static void broadcast(List<UUID> members, String message) {
+        for (UUID memberId : members) {
+            Player member = Bukkit.getPlayer(memberId);
+            if (member != null) member.sendMessage(message);
+        }
+    }
+
+    /**
+     * Runs an action once the player is known to have a token for the platform.
+     * <p>
+     * Outside {@code player} token mode, or when the token is already cached, the action runs immediately.
+     * Otherwise the token is loaded into {@link ChatBotTokenCache} on an async task, so the backing store
+     * is never queried on the main thread, and the action runs on the main thread afterwards. A missing
+     * token is reported to the player instead.
+     *
+     * @param player   the player to check
+     * @param platform AI platform
+     * @param action   action to run on the main thread if a token is available
+     */
+    private static void withPlayerToken(Player player, String platform, Runnable action) {
+        UUID playerId = player.getUniqueId();
+        if (!"player".equalsIgnoreCase(tokenType) || ChatBotTokenCache.getCached(playerId, platform) != null) {
+            action.run();
+            return;
+        }
+
+        Plugin owner = plugin;
+        if (owner == null) return;
+        Bukkit.getScheduler().runTaskAsynchronously(owner, () -> {
+            boolean found;
+            try {
+                found = ChatBotTokenCache.load(playerId, platform) != null;
+            } catch (Exception e) {
+                found = false;
+            }
+            boolean hasToken = found;
+            if (!owner.isEnabled()) return;
+            try {
+                Bukkit.getScheduler().runTask(owner, () -> {
+                    if (!active || !player.isOnline()) return;
+                    if (hasToken) {
+                        action.run();
+                    } else {
+                        player.sendMessage(ChatColor.RED + "You have no API token set for " + ChatColor.WHITE + platform
+                                + ChatColor.RED + ". Set one before starting a conversation.");
+                    }
+                });
+            } catch (IllegalPluginAccessException e) {
+                // Plugin disabled between the check and the scheduling call.
+            }
+        });
+    }
+
+    /**
+     * Validates that the platform and model are registered, informing the player otherwise.
+     *
+     * @param player   the player to notify
+     * @param platform AI platform
+     * @param model    AI model
+     * @return {@code true} if the combination is registered
+     */
+    private boolean isRegisteredModel(Player player, String platform, String model) {
+        Map<String, Map<String, ?>> registeredModels = MCEngineArtificialIntelligenceApiUtilAi.getAllModels();
+
+        if (!registeredModels.containsKey(platform)) {
+            player.sendMessage(ChatColor.RED + "Unknown platform: " + ChatColor.WHITE + platform);
+            return false;
+        }
+
+        Map<String, ?> modelsForPlatform = registeredModels.get(platform);
+        if (!modelsForPlatform.containsKey(model)) {
+            player.sendMessage(ChatColor.RED + "Unknown model: " + ChatColor.WHITE + model +
+                    ChatColor.GRAY + " for platform " + ChatColor.WHITE + platform);
+            return false;
+        }
         return true;
     }
 }
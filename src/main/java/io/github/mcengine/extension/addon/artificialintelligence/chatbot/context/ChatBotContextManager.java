@@ -0,0 +1,214 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.context;
+
+import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Captures, caches and serializes a compact snapshot of player state for prompts.
+ * <p>
+ * Snapshots are taken on the main thread by the enabled {@link ChatBotContextProvider}s and cached
+ * per player for {@code context.cache.ttl.ms}, so a player is snapshotted at most once per TTL no
+ * matter how many messages or concurrent chatbot users there are. Concurrent misses for the same
+ * player share a single main-thread capture. Async callers wait at most {@code context.capture.timeout.ms}
+ * and fall back to the previous snapshot (or none) instead of stalling.
+ */
+public class ChatBotContextManager {
+
+    /**
+     * Providers available for selection, keyed by name. Add-ons may register more.
+     */
+    private static final Map<String, ChatBotContextProvider> providers = new ConcurrentHashMap<>();
+
+    static {
+        registerProvider(ChatBotContextProviders.LOCATION);
+        registerProvider(ChatBotContextProviders.BIOME);
+        registerProvider(ChatBotContextProviders.HEALTH);
+        registerProvider(ChatBotContextProviders.HELD_ITEM);
+    }
+
+    /**
+     * Plugin used to schedule main-thread captures.
+     */
+    private final Plugin plugin;
+
+    /**
+     * Names of enabled providers in prompt order.
+     */
+    private final List<String> enabled;
+
+    /**
+     * How long a snapshot stays valid, in milliseconds.
+     */
+    private final long ttlMs;
+
+    /**
+     * Maximum time an async caller waits for a main-thread capture, in milliseconds.
+     */
+    private final long captureTimeoutMs;
+
+    /**
+     * Maximum length of a serialized snapshot.
+     */
+    private final int maxChars;
+
+    /**
+     * Logger for diagnostics.
+     */
+    private final MCEngineExtensionLogger logger;
+
+    /**
+     * Cached snapshots per player.
+     */
+    private final Map<UUID, Snapshot> cache = new ConcurrentHashMap<>();
+
+    /**
+     * In-flight main-thread captures per player.
+     */
+    private final Map<UUID, CompletableFuture<Snapshot>> pending = new ConcurrentHashMap<>();
+
+    /**
+     * A serialized snapshot and the time it was captured.
+     *
+     * @param text       serialized state
+     * @param capturedAt capture time in milliseconds
+     */
+    private record Snapshot(String text, long capturedAt) {}
+
+    /**
+     * Creates the manager.
+     *
+     * @param plugin           plugin used for main-thread scheduling
+     * @param enabled          names of enabled providers, in prompt order
+     * @param ttlMs            snapshot time-to-live in milliseconds
+     * @param captureTimeoutMs maximum async wait for a capture in milliseconds
+     * @param maxChars         maximum serialized snapshot length
+     * @param logger           logger for diagnostics
+     */
+    public ChatBotContextManager(Plugin plugin, List<String> enabled, long ttlMs, long captureTimeoutMs, int maxChars,
+                                 MCEngineExtensionLogger logger) {
+        this.plugin = plugin;
+        this.enabled = new ArrayList<>(enabled);
+        this.ttlMs = Math.max(0L, ttlMs);
+        this.captureTimeoutMs = Math.max(1L, captureTimeoutMs);
+        this.maxChars = Math.max(64, maxChars);
+        this.logger = logger;
+    }
+
+    /**
+     * Registers (or replaces) a context provider.
+     *
+     * @param provider the provider
+     */
+    public static void registerProvider(ChatBotContextProvider provider) {
+        providers.put(provider.getName().toLowerCase(), provider);
+    }
+
+    /**
+     * Removes a context provider.
+     *
+     * @param name provider name
+     */
+    public static void unregisterProvider(String name) {
+        providers.remove(name.toLowerCase());
+    }
+
+    /**
+     * Returns the player's state snapshot, capturing a fresh one if the cached copy expired.
+     * Safe to call from any thread.
+     *
+     * @param player the player
+     * @return serialized state, or an empty string if nothing could be captured in time
+     */
+    public String getSnapshot(Player player) {
+        if (enabled.isEmpty()) return "";
+
+        UUID playerId = player.getUniqueId();
+        long now = System.currentTimeMillis();
+        Snapshot cached = cache.get(playerId);
+        if (cached != null && now - cached.capturedAt() <= ttlMs) return cached.text();
+
+        if (Bukkit.isPrimaryThread()) return store(playerId, capture(player)).text();
+
+        CompletableFuture<Snapshot> future = pending.computeIfAbsent(playerId, id -> {
+            CompletableFuture<Snapshot> f = new CompletableFuture<>();
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    try {
+                        f.complete(store(playerId, capture(player)));
+                    } catch (Throwable t) {
+                        f.completeExceptionally(t);
+                    }
+                });
+            } catch (Throwable t) {
+                f.completeExceptionally(t);
+            }
+            return f;
+        });
+        future.whenComplete((snapshot, error) -> pending.remove(playerId, future));
+
+        try {
+            return future.get(captureTimeoutMs, TimeUnit.MILLISECONDS).text();
+        } catch (Exception e) {
+            return cached != null ? cached.text() : "";
+        }
+    }
+
+    /**
+     * Drops a player's cached snapshot, e.g. on logout.
+     *
+     * @param playerId player UUID
+     */
+    public void forget(UUID playerId) {
+        cache.remove(playerId);
+    }
+
+    /**
+     * Runs all enabled providers for the player. Must be called on the main thread.
+     *
+     * @param player the player
+     * @return serialized state
+     */
+    private String capture(Player player) {
+        StringBuilder out = new StringBuilder(128);
+        for (String name : enabled) {
+            ChatBotContextProvider provider = providers.get(name);
+            if (provider == null) continue;
+            int mark = out.length();
+            if (mark > 0) out.append("; ");
+            try {
+                provider.capture(player, out);
+            } catch (Exception e) {
+                out.setLength(mark);
+                if (logger != null) logger.warning("[ChatBotContext] Provider '" + name + "' failed: " + e.getMessage());
+            }
+            if (out.length() >= maxChars) {
+                out.setLength(maxChars);
+                break;
+            }
+        }
+        return out.toString();
+    }
+
+    /**
+     * Caches a freshly captured snapshot.
+     *
+     * @param playerId player UUID
+     * @param text     serialized state
+     * @return the cached snapshot
+     */
+    private Snapshot store(UUID playerId, String text) {
+        Snapshot snapshot = new Snapshot(text, System.currentTimeMillis());
+        cache.put(playerId, snapshot);
+        return snapshot;
+    }
+}
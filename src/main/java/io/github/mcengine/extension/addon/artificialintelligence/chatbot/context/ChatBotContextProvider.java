@@ -0,0 +1,29 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.context;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Contributes a piece of live game state to the prompt sent with a player's message.
+ * <p>
+ * Providers are invoked on the main thread by {@link ChatBotContextManager} and must be cheap and
+ * bounded: read a few fields, append a compact {@code key=value} fragment, never perform I/O.
+ * Other add-ons can register their own providers via
+ * {@link ChatBotContextManager#registerProvider(ChatBotContextProvider)}.
+ */
+public interface ChatBotContextProvider {
+
+    /**
+     * Returns the unique name used to enable this provider in {@code context.providers}.
+     *
+     * @return provider name
+     */
+    String getName();
+
+    /**
+     * Appends this provider's state for the player. Called on the main thread.
+     *
+     * @param player the player
+     * @param out    builder to append a compact {@code key=value} fragment to
+     */
+    void capture(Player player, StringBuilder out);
+}
@@ -0,0 +1,141 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.context;
+
+import org.bukkit.Chunk;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Built-in {@link ChatBotContextProvider} implementations.
+ */
+public class ChatBotContextProviders {
+
+    /**
+     * Upper bound for {@code context.nearby.radius}, in blocks, so a capture never scans more than a
+     * few chunks on the main thread.
+     */
+    public static final double MAX_NEARBY_RADIUS = 32.0;
+
+    /**
+     * World name and block coordinates, e.g. {@code location=world 120,64,-30}.
+     */
+    public static final ChatBotContextProvider LOCATION = of("location", (player, out) -> {
+        Location loc = player.getLocation();
+        out.append("location=").append(loc.getWorld() != null ? loc.getWorld().getName() : "?")
+           .append(' ').append(loc.getBlockX()).append(',').append(loc.getBlockY()).append(',').append(loc.getBlockZ());
+    });
+
+    /**
+     * Biome at the player's position.
+     */
+    public static final ChatBotContextProvider BIOME = of("biome", (player, out) ->
+        out.append("biome=").append(player.getLocation().getBlock().getBiome().getKey().getKey())
+    );
+
+    /**
+     * Health and food level.
+     */
+    public static final ChatBotContextProvider HEALTH = of("health", (player, out) ->
+        out.append("health=").append(Math.round(player.getHealth())).append(" food=").append(player.getFoodLevel())
+    );
+
+    /**
+     * Item held in the main hand.
+     */
+    public static final ChatBotContextProvider HELD_ITEM = of("held_item", (player, out) -> {
+        ItemStack item = player.getInventory().getItemInMainHand();
+        out.append("held=");
+        if (item == null || item.getType().isAir()) {
+            out.append("nothing");
+        } else {
+            out.append(item.getType().name().toLowerCase()).append('x').append(item.getAmount());
+        }
+    });
+
+    /**
+     * Creates a provider that summarizes nearby entities by type, e.g. {@code nearby=zombie:2,cow:1}.
+     * <p>
+     * Loaded chunks are scanned in rings outward from the player's chunk and the scan stops as soon as
+     * {@code maxEntries} entities were counted, so a crowded area costs no more than the cap.
+     *
+     * @param radius     search radius in blocks, clamped to {@link #MAX_NEARBY_RADIUS}
+     * @param maxEntries maximum number of entities inspected
+     * @return the provider
+     */
+    public static ChatBotContextProvider nearbyEntities(double radius, int maxEntries) {
+        double r = Math.max(0.0, Math.min(radius, MAX_NEARBY_RADIUS));
+        return of("nearby_entities", (player, out) -> {
+            Location loc = player.getLocation();
+            World world = loc.getWorld();
+            if (world == null) return;
+
+            Map<String, Integer> counts = new TreeMap<>();
+            int inspected = 0;
+            int centerX = loc.getBlockX() >> 4;
+            int centerZ = loc.getBlockZ() >> 4;
+            int minX = (int) Math.floor(loc.getX() - r) >> 4, maxX = (int) Math.floor(loc.getX() + r) >> 4;
+            int minZ = (int) Math.floor(loc.getZ() - r) >> 4, maxZ = (int) Math.floor(loc.getZ() + r) >> 4;
+            int rings = Math.max(Math.max(centerX - minX, maxX - centerX), Math.max(centerZ - minZ, maxZ - centerZ));
+            scan:
+            for (int ring = 0; ring <= rings; ring++) {
+                for (int cx = Math.max(minX, centerX - ring); cx <= Math.min(maxX, centerX + ring); cx++) {
+                    for (int cz = Math.max(minZ, centerZ - ring); cz <= Math.min(maxZ, centerZ + ring); cz++) {
+                        // Only the outer edge of each ring; inner chunks were scanned already
+                        if (Math.abs(cx - centerX) != ring && Math.abs(cz - centerZ) != ring) continue;
+                        if (!world.isChunkLoaded(cx, cz)) continue;
+                        Chunk chunk = world.getChunkAt(cx, cz);
+                        for (Entity entity : chunk.getEntities()) {
+                            if (entity == player) continue;
+                            Location at = entity.getLocation();
+                            if (Math.abs(at.getX() - loc.getX()) > r || Math.abs(at.getY() - loc.getY()) > r
+                                    || Math.abs(at.getZ() - loc.getZ()) > r) {
+                                continue;
+                            }
+                            if (inspected++ >= maxEntries) break scan;
+                            counts.merge(entity.getType().name().toLowerCase(), 1, Integer::sum);
+                        }
+                    }
+                }
+            }
+
+            out.append("nearby=");
+            if (counts.isEmpty()) {
+                out.append("none");
+                return;
+            }
+            boolean first = true;
+            for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+                if (!first) out.append(',');
+                out.append(entry.getKey()).append(':').append(entry.getValue());
+                first = false;
+            }
+        });
+    }
+
+    /**
+     * Creates a provider from a name and a capture function.
+     *
+     * @param name    provider name
+     * @param capture capture function
+     * @return the provider
+     */
+    public static ChatBotContextProvider of(String name, BiConsumer<Player, StringBuilder> capture) {
+        return new ChatBotContextProvider() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public void capture(Player player, StringBuilder out) {
+                capture.accept(player, out);
+            }
+        };
+    }
+}
@@ -5,10 +5,13 @@ import java.util.UUID;
 /**
  * Abstraction for ChatBot database operations (multi-dialect support).
  *
- * <p>Implementations must manage a single table:</p>
+ * <p>Implementations must manage the following tables:</p>
  * <ul>
  *   <li><strong>artificialintelligence_chatbot_mail</strong>
  *       (player_uuid PK, email TEXT/VARCHAR NOT NULL)</li>
+ *   <li><strong>artificialintelligence_chatbot_session</strong>
+ *       (player_uuid PK, version BIGINT NOT NULL, writer VARCHAR(36) NOT NULL, data TEXT NOT NULL);
+ *       {@code writer} is {@code H|R} followed by a 32-character nonce</li>
  * </ul>
  */
 public interface ChatBotDB {
@@ -32,4 +35,35 @@ public interface ChatBotDB {
      * @return {@code true} on success; {@code false} otherwise
      */
     boolean setPlayerEmail(UUID playerId, String email);
+
+    /**
+     * Loads the persisted session of a player.
+     *
+     * @param playerId player UUID
+     * @return the stored session or {@code null} if none exists or the lookup failed
+     */
+    ChatBotSessionRecord getSession(UUID playerId);
+
+    /**
+     * Stores a session using optimistic versioning.
+     * <p>
+     * With {@code expectedVersion == 0} the row must not exist yet; otherwise the stored version must
+     * equal {@code expectedVersion}. On success the stored version becomes {@code expectedVersion + 1}.
+     * The hold flag is stored in the writer nonce so that other servers can tell whether the session
+     * is still live somewhere and its final save is pending.
+     *
+     * @param playerId        player UUID
+     * @param data            Base64-encoded session payload
+     * @param expectedVersion version the caller last observed, or {@code 0} for a new row
+     * @param held            {@code true} while a server holds the live session, {@code false} once released
+     * @return {@code true} if written; {@code false} on version conflict or database error
+     */
+    boolean saveSession(UUID playerId, String data, long expectedVersion, boolean held);
+
+    /**
+     * Deletes the persisted session of a player.
+     *
+     * @param playerId player UUID
+     */
+    void deleteSession(UUID playerId);
 }
@@ -0,0 +1,10 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.database;
+
+/**
+ * A persisted chatbot session row.
+ *
+ * @param version optimistic-lock version of the row (starts at 1)
+ * @param held    whether a server still holds the live session (its final save is pending)
+ * @param data    Base64-encoded session payload
+ */
+public record ChatBotSessionRecord(long version, boolean held, String data) {}
@@ -3,6 +3,7 @@ package io.github.mcengine.extension.addon.artificialintelligence.chatbot.databa
 import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
 import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.ChatBotDB;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.ChatBotSessionRecord;
 
 import java.util.UUID;
 
@@ -31,8 +32,17 @@ public class ChatBotDBPostgreSQL implements ChatBotDB {
                 email TEXT NOT NULL
             );
             """;
+        final String sessionSql = """
+            CREATE TABLE IF NOT EXISTS artificialintelligence_chatbot_session (
+                player_uuid VARCHAR(36) PRIMARY KEY,
+                version BIGINT NOT NULL,
+                writer VARCHAR(36) NOT NULL,
+                data TEXT NOT NULL
+            );
+            """;
         try {
             MCEngineArtificialIntelligenceCommon.getApi().executeQuery(sql);
+            MCEngineArtificialIntelligenceCommon.getApi().executeQuery(sessionSql);
             if (logger != null) logger.info("[ChatBotDB] PostgreSQL schema ensured.");
         } catch (Exception e) {
             if (logger != null) logger.warning("[ChatBotDB] PostgreSQL schema creation failed: " + e.getMessage());
@@ -72,6 +82,60 @@ public class ChatBotDBPostgreSQL implements ChatBotDB {
         }
     }
 
+    @Override
+    public ChatBotSessionRecord getSession(UUID playerId) {
+        final String sql = "SELECT CAST(version AS TEXT) || ':' || writer || ':' || data FROM artificialintelligence_chatbot_session " +
+                "WHERE player_uuid = '" + escape(playerId.toString()) + "' LIMIT 1;";
+        try {
+            String row = MCEngineArtificialIntelligenceCommon.getApi().getValue(sql, String.class);
+            if (row == null) return null;
+            int sep = row.indexOf(':');
+            int sep2 = row.indexOf(':', sep + 1);
+            boolean held = row.charAt(sep + 1) == 'H';
+            return new ChatBotSessionRecord(Long.parseLong(row.substring(0, sep)), held, row.substring(sep2 + 1));
+        } catch (Exception e) {
+            if (logger != null) logger.warning("[ChatBotDB] PostgreSQL get session failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean saveSession(UUID playerId, String data, long expectedVersion, boolean held) {
+        final String id = escape(playerId.toString());
+        // Writer nonce, prefixed with the hold state: H = a server holds the live session, R = released.
+        final String writer = (held ? "H" : "R") + UUID.randomUUID().toString().replace("-", "");
+        final long nextVersion = expectedVersion + 1;
+        // Conditional write followed by a read-back of the writer nonce, since the query helper
+        // does not report affected row counts.
+        final String write = expectedVersion == 0
+                ? "INSERT INTO artificialintelligence_chatbot_session (player_uuid, version, writer, data) VALUES (" +
+                  "'" + id + "', 1, '" + writer + "', '" + escape(data) + "');"
+                : "UPDATE artificialintelligence_chatbot_session SET version = " + nextVersion + ", " +
+                  "writer = '" + writer + "', data = '" + escape(data) + "' " +
+                  "WHERE player_uuid = '" + id + "' AND version = " + expectedVersion + ";";
+        final String check = "SELECT writer FROM artificialintelligence_chatbot_session " +
+                "WHERE player_uuid = '" + id + "' AND version = " + nextVersion + " LIMIT 1;";
+        try {
+            MCEngineArtificialIntelligenceCommon.getApi().executeQuery(write);
+            return writer.equals(MCEngineArtificialIntelligenceCommon.getApi().getValue(check, String.class));
+        } catch (Exception e) {
+            // A duplicate key on INSERT means another server created the row first.
+            if (logger != null) logger.warning("[ChatBotDB] PostgreSQL save session failed: " + e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public void deleteSession(UUID playerId) {
+        final String sql = "DELETE FROM artificialintelligence_chatbot_session " +
+                "WHERE player_uuid = '" + escape(playerId.toString()) + "';";
+        try {
+            MCEngineArtificialIntelligenceCommon.getApi().executeQuery(sql);
+        } catch (Exception e) {
+            if (logger != null) logger.warning("[ChatBotDB] PostgreSQL delete session failed: " + e.getMessage());
+        }
+    }
+
     /** Minimal SQL string escaper for single quotes. */
     private static String escape(String s) {
         return s == null ? "" : s.replace("'", "''");
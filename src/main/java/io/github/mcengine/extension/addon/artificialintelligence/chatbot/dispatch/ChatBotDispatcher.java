@@ -0,0 +1,96 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch;
+
+import com.google.gson.JsonObject;
+import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routes AI completion requests to the provider on the calling thread.
+ * <p>
+ * The common AI API exposes single-completion calls only, so requests are never held back or
+ * grouped. Optionally, {@code dispatch.concurrency.per.provider} caps the number of concurrent calls
+ * per platform to keep rate-limit headroom at peak; a request that cannot get a slot within
+ * {@code dispatch.queue.timeout.ms} fails instead of queueing indefinitely. The cap is off by default.
+ */
+public class ChatBotDispatcher {
+
+    /**
+     * Maximum number of concurrent provider calls per platform; {@code <= 0} means unlimited.
+     */
+    private final int perProviderConcurrency;
+
+    /**
+     * Maximum time a request waits for a concurrency slot, in milliseconds.
+     */
+    private final long queueTimeoutMs;
+
+    /**
+     * Concurrency permits per platform; unused when the cap is off.
+     */
+    private final Map<String, Semaphore> providerPermits = new ConcurrentHashMap<>();
+
+    /**
+     * Whether the dispatcher has been shut down.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a dispatcher.
+     *
+     * @param perProviderConcurrency maximum concurrent provider calls per platform; {@code <= 0} for no cap
+     * @param queueTimeoutMs         maximum wait for a concurrency slot in milliseconds
+     */
+    public ChatBotDispatcher(int perProviderConcurrency, long queueTimeoutMs) {
+        this.perProviderConcurrency = perProviderConcurrency;
+        this.queueTimeoutMs = Math.max(1L, queueTimeoutMs);
+    }
+
+    /**
+     * Executes a request and waits for its response.
+     * Must be called off the main thread.
+     *
+     * @param request the request
+     * @return provider response
+     * @throws Exception if the provider call fails, no slot frees up in time, or the dispatcher is shut down
+     */
+    public JsonObject execute(ChatBotRequest request) throws Exception {
+        if (closed) throw new IllegalStateException("ChatBot dispatcher is shutting down.");
+        if (perProviderConcurrency <= 0) return call(request);
+
+        Semaphore permits = providerPermits.computeIfAbsent(request.platform(), p -> new Semaphore(perProviderConcurrency));
+        if (!permits.tryAcquire(queueTimeoutMs, TimeUnit.MILLISECONDS)) {
+            throw new IllegalStateException("Too many concurrent requests to " + request.platform() + "; try again shortly.");
+        }
+        try {
+            return call(request);
+        } finally {
+            permits.release();
+        }
+    }
+
+    /**
+     * Stops accepting new requests. Calls already in progress finish normally.
+     */
+    public void shutdown() {
+        closed = true;
+    }
+
+    /**
+     * Performs a single provider call.
+     *
+     * @param request the request
+     * @return provider response
+     * @throws Exception if the call fails
+     */
+    private static JsonObject call(ChatBotRequest request) throws Exception {
+        MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
+        if (request.token() == null) {
+            return api.getResponse(request.platform(), request.model(), request.context(), request.message());
+        }
+        return api.getResponse(request.platform(), request.model(), request.token(), request.context(), request.message());
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch;
+
+/**
+ * A single completion request routed through {@link ChatBotDispatcher}.
+ *
+ * @param platform AI platform
+ * @param model    AI model
+ * @param token    player token, or {@code null} to use the server token
+ * @param context  conversation history sent as context
+ * @param message  prepared user message
+ */
+public record ChatBotRequest(String platform, String model, String token, String context, String message) {}
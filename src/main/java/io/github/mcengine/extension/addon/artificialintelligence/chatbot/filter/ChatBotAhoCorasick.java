@@ -0,0 +1,252 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.filter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Case-insensitive multi-pattern matcher compiled into an Aho-Corasick automaton.
+ * <p>
+ * The automaton is fully expanded into a dense transition table over the alphabet of characters
+ * that actually occur in the patterns, so matching is a single table lookup per input character
+ * (plus a binary search for non-ASCII characters) with no allocation. Instances are immutable and safe to share between threads.
+ * <p>
+ * In whole-word mode a pattern only matches when it is not directly preceded or followed by a letter
+ * or digit, so {@code ass} matches "ass!" but not "class"; edges of a pattern that are not letters or
+ * digits themselves are not constrained.
+ */
+public class ChatBotAhoCorasick {
+
+    /**
+     * Alphabet class per ASCII character; {@code 0} means "not in any pattern".
+     */
+    private final int[] asciiClass = new int[128];
+
+    /**
+     * Sorted non-ASCII pattern characters, searched with binary search so lookups never box.
+     */
+    private final char[] otherChars;
+
+    /**
+     * Alphabet class of each entry in {@link #otherChars}.
+     */
+    private final int[] otherClasses;
+
+    /**
+     * Dense transition table: {@code next[state * width + class]}.
+     */
+    private final int[] next;
+
+    /**
+     * Number of alphabet classes, including the catch-all class {@code 0}.
+     */
+    private final int width;
+
+    /**
+     * Whether a pattern ends in (or is a suffix of) each state.
+     */
+    private final boolean[] terminal;
+
+    /**
+     * Patterns ending in each state (including via failure links), for whole-word checks;
+     * {@code null} for non-terminal states.
+     */
+    private final String[][] outputs;
+
+    /**
+     * Whether patterns must match whole words.
+     */
+    private final boolean wholeWords;
+
+    /**
+     * Compiles the given patterns. Blank patterns are ignored.
+     *
+     * @param patterns   patterns to match (case-insensitive)
+     * @param wholeWords whether patterns must match whole words instead of any substring
+     */
+    public ChatBotAhoCorasick(Collection<String> patterns, boolean wholeWords) {
+        this.wholeWords = wholeWords;
+        List<String> words = new ArrayList<>(new LinkedHashSet<>(normalize(patterns)));
+
+        // Build the alphabet.
+        int classes = 1;
+        HashSet<Character> others = new HashSet<>();
+        for (String word : words) {
+            for (int i = 0; i < word.length(); i++) {
+                char c = word.charAt(i);
+                if (c < 128) {
+                    if (asciiClass[c] == 0) asciiClass[c] = classes++;
+                } else {
+                    others.add(c);
+                }
+            }
+        }
+        this.otherChars = new char[others.size()];
+        int n = 0;
+        for (char c : others) otherChars[n++] = c;
+        Arrays.sort(otherChars);
+        this.otherClasses = new int[otherChars.length];
+        for (int i = 0; i < otherChars.length; i++) otherClasses[i] = classes++;
+        this.width = classes;
+
+        // Build the trie.
+        List<int[]> trie = new ArrayList<>();
+        List<String> ends = new ArrayList<>();
+        trie.add(newRow(width));
+        ends.add(null);
+        for (String word : words) {
+            int state = 0;
+            for (int i = 0; i < word.length(); i++) {
+                int cls = classOf(word.charAt(i));
+                int child = trie.get(state)[cls];
+                if (child < 0) {
+                    child = trie.size();
+                    trie.add(newRow(width));
+                    ends.add(null);
+                    trie.get(state)[cls] = child;
+                }
+                state = child;
+            }
+            ends.set(state, word);
+        }
+
+        // Breadth-first pass computing failure links and expanding them into transitions.
+        int states = trie.size();
+        int[] fail = new int[states];
+        this.terminal = new boolean[states];
+        this.outputs = new String[states][];
+        for (int i = 0; i < states; i++) {
+            terminal[i] = ends.get(i) != null;
+            if (terminal[i]) outputs[i] = new String[] {ends.get(i)};
+        }
+
+        Queue<Integer> queue = new ArrayDeque<>();
+        int[] root = trie.get(0);
+        for (int cls = 0; cls < width; cls++) {
+            if (root[cls] < 0) {
+                root[cls] = 0;
+            } else {
+                fail[root[cls]] = 0;
+                queue.add(root[cls]);
+            }
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            terminal[state] |= terminal[fail[state]];
+            outputs[state] = merge(outputs[state], outputs[fail[state]]);
+            int[] row = trie.get(state);
+            int[] failRow = trie.get(fail[state]);
+            for (int cls = 0; cls < width; cls++) {
+                if (row[cls] < 0) {
+                    row[cls] = failRow[cls];
+                } else {
+                    fail[row[cls]] = failRow[cls];
+                    queue.add(row[cls]);
+                }
+            }
+        }
+
+        this.next = new int[states * width];
+        for (int s = 0; s < states; s++) {
+            System.arraycopy(trie.get(s), 0, next, s * width, width);
+        }
+    }
+
+    /**
+     * Checks whether any pattern occurs in the text.
+     *
+     * @param text text to scan
+     * @return {@code true} on the first match
+     */
+    public boolean matches(String text) {
+        if (width == 1) return false;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            state = next[state * width + classOf(Character.toLowerCase(text.charAt(i)))];
+            if (terminal[state] && (!wholeWords || isWholeWord(text, i, outputs[state]))) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether any of the patterns ending at a position stands on word boundaries.
+     *
+     * @param text     scanned text
+     * @param end      index of the last matched character
+     * @param patterns patterns ending at {@code end}
+     * @return {@code true} if one of them is a whole word
+     */
+    private static boolean isWholeWord(String text, int end, String[] patterns) {
+        for (String pattern : patterns) {
+            int start = end - pattern.length() + 1;
+            boolean startOk = start == 0 || !Character.isLetterOrDigit(pattern.charAt(0))
+                    || !Character.isLetterOrDigit(text.charAt(start - 1));
+            boolean endOk = end == text.length() - 1 || !Character.isLetterOrDigit(pattern.charAt(pattern.length() - 1))
+                    || !Character.isLetterOrDigit(text.charAt(end + 1));
+            if (startOk && endOk) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Concatenates two output lists.
+     *
+     * @param own       patterns ending in a state itself
+     * @param inherited patterns inherited from the failure state
+     * @return combined list, or {@code null} if both are empty
+     */
+    private static String[] merge(String[] own, String[] inherited) {
+        if (inherited == null) return own;
+        if (own == null) return inherited;
+        String[] merged = Arrays.copyOf(own, own.length + inherited.length);
+        System.arraycopy(inherited, 0, merged, own.length, inherited.length);
+        return merged;
+    }
+
+    /**
+     * Maps a (lower-case) character to its alphabet class.
+     *
+     * @param c character
+     * @return class index, {@code 0} if the character is not used by any pattern
+     */
+    private int classOf(char c) {
+        if (c < 128) return asciiClass[c];
+        int i = Arrays.binarySearch(otherChars, c);
+        return i >= 0 ? otherClasses[i] : 0;
+    }
+
+    /**
+     * Lower-cases patterns and drops blank ones.
+     *
+     * @param patterns raw patterns
+     * @return normalized patterns
+     */
+    private static List<String> normalize(Collection<String> patterns) {
+        List<String> result = new ArrayList<>();
+        if (patterns == null) return result;
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.isBlank()) continue;
+            StringBuilder sb = new StringBuilder(pattern.length());
+            for (int i = 0; i < pattern.length(); i++) sb.append(Character.toLowerCase(pattern.charAt(i)));
+            result.add(sb.toString());
+        }
+        return result;
+    }
+
+    /**
+     * Creates a transition row with all entries unset.
+     *
+     * @param width row width
+     * @return new row filled with {@code -1}
+     */
+    private static int[] newRow(int width) {
+        int[] row = new int[width];
+        Arrays.fill(row, -1);
+        return row;
+    }
+}
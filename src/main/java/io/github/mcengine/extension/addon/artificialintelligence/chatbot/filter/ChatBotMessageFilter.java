@@ -0,0 +1,232 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.filter;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Local filter that runs before a message is dispatched to the paid provider.
+ * <p>
+ * Rejects messages that are too short or too long, contain no letters or digits (e.g. emoji spam),
+ * repeat one of the player's last few messages within a time window, or match the configured
+ * blocklist (whole words by default). Every check is in-memory and cheap so it can run on the async
+ * chat thread. Rejections are counted per reason; each one is a provider call saved.
+ * <p>
+ * An allowed message is remembered for duplicate detection right away, so a quick resend is caught
+ * while the first copy is still in flight; callers {@link #release(UUID, String) release} it again if
+ * the provider call fails, so the player can retry.
+ */
+public class ChatBotMessageFilter {
+
+    /**
+     * Outcome of {@link #check(UUID, String)}.
+     */
+    public enum Result {
+        /** The message may be sent to the provider. */
+        ALLOWED,
+        /** Shorter than {@code filter.min.length}. */
+        TOO_SHORT,
+        /** Longer than {@code filter.max.length}. */
+        TOO_LONG,
+        /** No letters or digits. */
+        NO_CONTENT,
+        /** Repeats a recent message of the same player. */
+        DUPLICATE,
+        /** Contains a blocklisted term. */
+        BLOCKED
+    }
+
+    /**
+     * Compiled blocklist matcher.
+     */
+    private final ChatBotAhoCorasick blocklist;
+
+    /**
+     * Minimum accepted message length.
+     */
+    private final int minLength;
+
+    /**
+     * Maximum accepted message length.
+     */
+    private final int maxLength;
+
+    /**
+     * Window in milliseconds during which a repeated message is suppressed.
+     */
+    private final long duplicateWindowMs;
+
+    /**
+     * Number of recent messages remembered per player for duplicate detection.
+     */
+    private final int duplicateHistory;
+
+    /**
+     * Recent messages per player.
+     */
+    private final Map<UUID, Recent> recent = new ConcurrentHashMap<>();
+
+    /**
+     * Rejection counters per result.
+     */
+    private final Map<Result, LongAdder> counters = new EnumMap<>(Result.class);
+
+    /**
+     * Ring buffer of a player's recent normalized messages, their hashes and timestamps.
+     * The hash is only a fast pre-check; duplicates are confirmed on the text itself.
+     */
+    private static final class Recent {
+        private final String[] texts;
+        private final int[] hashes;
+        private final long[] times;
+        private int next;
+
+        private Recent(int size) {
+            this.texts = new String[size];
+            this.hashes = new int[size];
+            this.times = new long[size];
+        }
+    }
+
+    /**
+     * Creates the filter.
+     *
+     * @param blocklist           blocklisted terms (case-insensitive)
+     * @param blocklistWholeWords whether blocklisted terms only match whole words instead of any substring
+     * @param minLength           minimum accepted length
+     * @param maxLength           maximum accepted length; {@code <= 0} disables the check
+     * @param duplicateWindowMs   duplicate suppression window; {@code <= 0} disables the check
+     * @param duplicateHistory    recent messages remembered per player
+     */
+    public ChatBotMessageFilter(List<String> blocklist, boolean blocklistWholeWords, int minLength, int maxLength,
+                                long duplicateWindowMs, int duplicateHistory) {
+        this.blocklist = new ChatBotAhoCorasick(blocklist, blocklistWholeWords);
+        this.minLength = Math.max(0, minLength);
+        this.maxLength = maxLength;
+        this.duplicateWindowMs = duplicateWindowMs;
+        this.duplicateHistory = Math.max(1, duplicateHistory);
+        for (Result result : Result.values()) {
+            counters.put(result, new LongAdder());
+        }
+    }
+
+    /**
+     * Checks a message and records the outcome.
+     *
+     * @param playerId sender UUID
+     * @param message  trimmed message
+     * @return the filter result
+     */
+    public Result check(UUID playerId, String message) {
+        Result result = evaluate(playerId, message);
+        counters.get(result).increment();
+        return result;
+    }
+
+    /**
+     * Forgets an allowed message whose provider call failed, so resending it is not rejected as a duplicate.
+     *
+     * @param playerId sender UUID
+     * @param message  the message as passed to {@link #check(UUID, String)}
+     */
+    public void release(UUID playerId, String message) {
+        Recent ring = recent.get(playerId);
+        if (ring == null) return;
+        String text = message.toLowerCase(Locale.ROOT);
+        synchronized (ring) {
+            for (int i = 0; i < ring.texts.length; i++) {
+                if (text.equals(ring.texts[i])) {
+                    ring.texts[i] = null;
+                    ring.times[i] = 0;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forgets a player's recent messages, e.g. on logout.
+     *
+     * @param playerId player UUID
+     */
+    public void forget(UUID playerId) {
+        recent.remove(playerId);
+    }
+
+    /**
+     * Returns how many messages were rejected for a reason.
+     *
+     * @param result result to query
+     * @return count since startup
+     */
+    public long getCount(Result result) {
+        return counters.get(result).sum();
+    }
+
+    /**
+     * Returns the number of provider calls saved, i.e. all rejected messages.
+     *
+     * @return count since startup
+     */
+    public long getSavedCalls() {
+        long saved = 0;
+        for (Result result : Result.values()) {
+            if (result != Result.ALLOWED) saved += counters.get(result).sum();
+        }
+        return saved;
+    }
+
+    /**
+     * Runs the checks from cheapest to most expensive.
+     *
+     * @param playerId sender UUID
+     * @param message  trimmed message
+     * @return the filter result
+     */
+    private Result evaluate(UUID playerId, String message) {
+        int length = message.length();
+        if (length < minLength) return Result.TOO_SHORT;
+        if (maxLength > 0 && length > maxLength) return Result.TOO_LONG;
+
+        boolean hasContent = false;
+        for (int i = 0; i < length && !hasContent; i++) {
+            hasContent = Character.isLetterOrDigit(message.charAt(i));
+        }
+        if (!hasContent) return Result.NO_CONTENT;
+
+        if (blocklist.matches(message)) return Result.BLOCKED;
+
+        if (duplicateWindowMs > 0 && isDuplicate(playerId, message.toLowerCase(Locale.ROOT))) return Result.DUPLICATE;
+
+        return Result.ALLOWED;
+    }
+
+    /**
+     * Checks the player's recent messages for the same text and records this one.
+     *
+     * @param playerId sender UUID
+     * @param text     lower-cased message
+     * @return {@code true} if an identical message was sent within the window
+     */
+    private boolean isDuplicate(UUID playerId, String text) {
+        Recent ring = recent.computeIfAbsent(playerId, id -> new Recent(duplicateHistory));
+        int hash = text.hashCode();
+        long now = System.currentTimeMillis();
+        synchronized (ring) {
+            for (int i = 0; i < ring.hashes.length; i++) {
+                if (ring.times[i] != 0 && ring.hashes[i] == hash && now - ring.times[i] <= duplicateWindowMs
+                        && text.equals(ring.texts[i])) {
+                    return true;
+                }
+            }
+            ring.texts[ring.next] = text;
+            ring.hashes[ring.next] = hash;
+            ring.times[ring.next] = now;
+            ring.next = (ring.next + 1) % ring.hashes.length;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.group;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of shared group conversations keyed by member UUID.
+ * <p>
+ * A player can belong to at most one group at a time. Lookups are lock-free so the
+ * async chat listener can check membership on every message.
+ */
+public class ChatBotGroupManager {
+
+    /**
+     * Maps every member (leader included) to the group they belong to.
+     */
+    private static final Map<UUID, ChatBotGroupSession> groupsByMember = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new group led by the given player.
+     *
+     * @param leaderId   UUID of the leader
+     * @param platform   AI platform
+     * @param model      AI model
+     * @param maxMembers maximum number of members, leader included
+     * @param maxHistoryChars maximum shared history characters kept
+     * @return the new group, or {@code null} if the player already belongs to one
+     */
+    public static ChatBotGroupSession create(UUID leaderId, String platform, String model, int maxMembers,
+                                             int maxHistoryChars) {
+        ChatBotGroupSession session = new ChatBotGroupSession(leaderId, platform, model, maxMembers, maxHistoryChars);
+        return groupsByMember.putIfAbsent(leaderId, session) == null ? session : null;
+    }
+
+    /**
+     * Returns the group the player belongs to.
+     *
+     * @param playerId player UUID
+     * @return the group or {@code null}
+     */
+    public static ChatBotGroupSession get(UUID playerId) {
+        return groupsByMember.get(playerId);
+    }
+
+    /**
+     * Checks whether the player belongs to a group.
+     *
+     * @param playerId player UUID
+     * @return {@code true} if the player is a member of any group
+     */
+    public static boolean isInGroup(UUID playerId) {
+        return groupsByMember.containsKey(playerId);
+    }
+
+    /**
+     * Returns the number of open groups.
+     *
+     * @return group count
+     */
+    public static int getGroupCount() {
+        return distinctGroups().size();
+    }
+
+    /**
+     * Estimates the heap held by the shared histories of all open groups.
+     *
+     * @return estimated bytes
+     */
+    public static long getResidentBytes() {
+        long bytes = 0;
+        for (ChatBotGroupSession session : distinctGroups()) {
+            bytes += session.getHistoryBytes();
+        }
+        return bytes;
+    }
+
+    /**
+     * Collects each open group once (the registry maps every member to their group).
+     *
+     * @return distinct groups
+     */
+    private static Set<ChatBotGroupSession> distinctGroups() {
+        Set<ChatBotGroupSession> groups = Collections.newSetFromMap(new IdentityHashMap<>());
+        groups.addAll(groupsByMember.values());
+        return groups;
+    }
+
+    /**
+     * Adds the player to the group led by {@code leaderId}.
+     *
+     * @param playerId UUID of the joining player
+     * @param leaderId UUID of the group leader
+     * @return the joined group, or {@code null} if the leader has no group, it is full,
+     *         or the player already belongs to a group
+     */
+    public static ChatBotGroupSession join(UUID playerId, UUID leaderId) {
+        ChatBotGroupSession session = groupsByMember.get(leaderId);
+        if (session == null || !session.getLeaderId().equals(leaderId)) return null;
+        if (groupsByMember.putIfAbsent(playerId, session) != null) return null;
+        if (!session.addMember(playerId)) {
+            groupsByMember.remove(playerId, session);
+            return null;
+        }
+        return session;
+    }
+
+    /**
+     * Removes the player from their group. If the player is the leader the group is disbanded.
+     *
+     * @param playerId player UUID
+     * @return members that were removed as a result (the player alone, or every member on disband);
+     *         empty if the player was not in a group
+     */
+    public static List<UUID> leave(UUID playerId) {
+        ChatBotGroupSession session = groupsByMember.remove(playerId);
+        if (session == null) return Collections.emptyList();
+
+        if (session.getLeaderId().equals(playerId)) {
+            List<UUID> members = session.close();
+            for (UUID member : members) {
+                groupsByMember.remove(member, session);
+            }
+            return members;
+        }
+
+        session.removeMember(playerId);
+        return List.of(playerId);
+    }
+}
@@ -0,0 +1,233 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.group;
+
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionCodec;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * A shared AI conversation that serves several players at once.
+ * <p>
+ * Messages from members are buffered and flushed as a single speaker-labelled request so that
+ * a party asking about the same topic costs one provider call instead of one per player.
+ * All state is guarded by the session monitor, so instances are safe to use from the async
+ * chat thread, scheduler workers and the main thread concurrently.
+ */
+public class ChatBotGroupSession {
+
+    /**
+     * UUID of the player who created the group; their token is used in {@code player} token mode.
+     */
+    private final UUID leaderId;
+
+    /**
+     * AI platform used for this group.
+     */
+    private final String platform;
+
+    /**
+     * AI model used for this group.
+     */
+    private final String model;
+
+    /**
+     * Maximum number of members, leader included.
+     */
+    private final int maxMembers;
+
+    /**
+     * Maximum characters of shared history kept; older exchanges are dropped first.
+     */
+    private final int maxHistoryChars;
+
+    /**
+     * Current members in join order (leader first).
+     */
+    private final Set<UUID> members = new LinkedHashSet<>();
+
+    /**
+     * Speaker-labelled messages waiting for the next flush.
+     */
+    private final List<String> pending = new ArrayList<>();
+
+    /**
+     * Shared conversation history sent as context with each request.
+     */
+    private final StringBuilder history = new StringBuilder();
+
+    /**
+     * Whether a flush task is already scheduled for the pending buffer.
+     */
+    private boolean flushScheduled;
+
+    /**
+     * Whether a request for this group is currently in flight.
+     */
+    private boolean inFlight;
+
+    /**
+     * Whether the group has been disbanded.
+     */
+    private boolean closed;
+
+    /**
+     * Creates a new group session.
+     *
+     * @param leaderId   UUID of the creating player
+     * @param platform   AI platform
+     * @param model      AI model
+     * @param maxMembers maximum number of members, leader included
+     * @param maxHistoryChars maximum shared history characters kept; {@code <= 0} keeps everything
+     */
+    public ChatBotGroupSession(UUID leaderId, String platform, String model, int maxMembers, int maxHistoryChars) {
+        this.leaderId = leaderId;
+        this.platform = platform;
+        this.model = model;
+        this.maxMembers = Math.max(1, maxMembers);
+        this.maxHistoryChars = maxHistoryChars;
+        this.members.add(leaderId);
+    }
+
+    /** @return UUID of the group leader */
+    public UUID getLeaderId() {
+        return leaderId;
+    }
+
+    /** @return AI platform of this group */
+    public String getPlatform() {
+        return platform;
+    }
+
+    /** @return AI model of this group */
+    public String getModel() {
+        return model;
+    }
+
+    /**
+     * Adds a member to the group.
+     *
+     * @param playerId member UUID
+     * @return {@code true} if added; {@code false} if closed, full or already a member
+     */
+    public synchronized boolean addMember(UUID playerId) {
+        if (closed || members.size() >= maxMembers) return false;
+        return members.add(playerId);
+    }
+
+    /**
+     * Removes a member from the group.
+     *
+     * @param playerId member UUID
+     * @return {@code true} if the player was a member
+     */
+    public synchronized boolean removeMember(UUID playerId) {
+        return members.remove(playerId);
+    }
+
+    /**
+     * Returns a snapshot of the current members.
+     *
+     * @return immutable copy of member UUIDs
+     */
+    public synchronized List<UUID> getMembers() {
+        return List.copyOf(members);
+    }
+
+    /**
+     * Marks the group as closed and clears all buffered state.
+     *
+     * @return the members at the time of closing
+     */
+    public synchronized List<UUID> close() {
+        closed = true;
+        List<UUID> snapshot = List.copyOf(members);
+        members.clear();
+        pending.clear();
+        return snapshot;
+    }
+
+    /** @return {@code true} once the group has been disbanded */
+    public synchronized boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Buffers a message for the next flush.
+     *
+     * @param speaker display name of the sender
+     * @param message raw chat text
+     * @return {@code true} if the caller must schedule a flush; {@code false} if one is already pending
+     */
+    public synchronized boolean enqueue(String speaker, String message) {
+        if (closed) return false;
+        pending.add("[" + speaker + "]: " + message);
+        if (flushScheduled || inFlight) return false;
+        flushScheduled = true;
+        return true;
+    }
+
+    /**
+     * Drains the pending buffer and marks a request as in flight.
+     *
+     * @return the buffered messages, or an empty list if there is nothing to send
+     */
+    public synchronized List<String> beginFlush() {
+        flushScheduled = false;
+        if (closed || pending.isEmpty()) return Collections.emptyList();
+        List<String> batch = new ArrayList<>(pending);
+        pending.clear();
+        inFlight = true;
+        return batch;
+    }
+
+    /**
+     * Records a completed exchange in the shared history, dropping the oldest exchanges once the
+     * history exceeds {@code group.max.history.chars}.
+     *
+     * @param userBlock speaker-labelled messages that were sent
+     * @param reply     AI reply
+     */
+    public synchronized void appendExchange(String userBlock, String reply) {
+        if (closed) return;
+        history.append(userBlock).append('\n').append("[AI]: ").append(reply).append('\n');
+        if (maxHistoryChars > 0 && history.length() > maxHistoryChars) {
+            String kept = ChatBotSessionCodec.compact(history.toString(), maxHistoryChars);
+            history.setLength(0);
+            history.append(kept);
+        }
+    }
+
+    /**
+     * Ends the in-flight request.
+     *
+     * @return {@code true} if messages arrived meanwhile and the caller must schedule another flush
+     */
+    public synchronized boolean finishFlush() {
+        inFlight = false;
+        if (closed || pending.isEmpty()) return false;
+        flushScheduled = true;
+        return true;
+    }
+
+    /**
+     * Returns the shared conversation history.
+     *
+     * @return history text
+     */
+    public synchronized String getHistory() {
+        return history.toString();
+    }
+
+    /**
+     * Estimates the heap held by the shared history (two bytes per character).
+     *
+     * @return estimated bytes
+     */
+    public synchronized long getHistoryBytes() {
+        return 2L * history.length();
+    }
+}
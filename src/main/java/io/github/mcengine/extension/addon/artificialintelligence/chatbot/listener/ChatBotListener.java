@@ -3,23 +3,48 @@ package io.github.mcengine.extension.addon.artificialintelligence.chatbot.listen
 import com.google.gson.JsonObject;
 import io.github.mcengine.api.artificialintelligence.util.MCEngineArtificialIntelligenceApiUtilBotManager;
 import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.audit.ChatBotAuditLog;
 import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.command.ChatBotCommand;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.context.ChatBotContextManager;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch.ChatBotDispatcher;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch.ChatBotRequest;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.filter.ChatBotMessageFilter;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.group.ChatBotGroupManager;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.group.ChatBotGroupSession;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.render.ChatBotReplyCache;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.render.ChatBotReplyRenderer;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionSnapshot;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionSpill;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.session.ChatBotSessionSync;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.tool.ChatBotToolEngine;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.util.ChatBotConfigLoader;
 import io.github.mcengine.extension.addon.artificialintelligence.chatbot.util.ChatBotListenerUtil;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.util.ChatBotTokenCache;
+import net.md_5.bungee.api.chat.BaseComponent;
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.AsyncPlayerChatEvent;
+import org.bukkit.event.player.PlayerCommandPreprocessEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.plugin.IllegalPluginAccessException;
 import org.bukkit.plugin.Plugin;
 
-import java.io.File;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Listener that intercepts player chat to handle AI chatbot sessions.
@@ -29,6 +54,13 @@ import java.util.UUID;
  *   <li>Gate normal chat when a player is in an AI session.</li>
  *   <li>Forward messages to the AI backend using the configured token type.</li>
  *   <li>Handle special commands (e.g., {@code quit}) and optional email export.</li>
+ *   <li>Drop spam, duplicates and blocklisted content locally before any provider call.</li>
+ *   <li>Attach a cached snapshot of the player's game state to each prompt.</li>
+ *   <li>Record prompts and replies to the asynchronous audit log.</li>
+ *   <li>Optionally let the model call registered server tools during a turn.</li>
+ *   <li>Batch messages of shared group conversations into a single speaker-labelled request.</li>
+ *   <li>Run AI and mail work on an owned executor that can be drained on shutdown.</li>
+ *   <li>Persist sessions on quit and restore them on join for cross-server continuity.</li>
  *   <li>Log operational details via {@link MCEngineExtensionLogger} with contextual prefixes.</li>
  * </ul>
  */
@@ -55,28 +87,126 @@ public class ChatBotListener implements Listener {
      */
     private final String systemPrompt;
 
+    /**
+     * Window in milliseconds during which group messages are collected into one request.
+     */
+    private final long groupBatchWindowMs;
+
     /**
      * Extension-aware logger that prefixes messages with plugin / context info.
      */
     private final MCEngineExtensionLogger logger;
 
+    /**
+     * Dispatcher that sends provider requests under an optional per-platform concurrency cap.
+     */
+    private final ChatBotDispatcher dispatcher;
+
+    /**
+     * Local pre-dispatch filter applied to every message before it reaches the provider.
+     */
+    private final ChatBotMessageFilter filter;
+
+    /**
+     * Player state snapshot provider, or {@code null} when {@code context.enable} is off.
+     */
+    private final ChatBotContextManager contextManager;
+
+    /**
+     * Audit log of prompts and replies, or {@code null} when {@code audit.enable} is off.
+     */
+    private final ChatBotAuditLog auditLog;
+
+    /**
+     * Executor running AI requests, group flushes and quit/mail handling off the main thread.
+     * Owned by this listener so in-flight work can be drained with a deadline on shutdown.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Tool-calling loop for personal sessions, or {@code null} when {@code tools.enable} is off.
+     */
+    private final ChatBotToolEngine toolEngine;
+
+    /**
+     * Markdown-to-component renderer for replies, or {@code null} when {@code render.enable} is off.
+     */
+    private final ChatBotReplyRenderer renderer;
+
+    /**
+     * Idle session eviction and disk spill, or {@code null} when {@code session.idle.enable} is off.
+     */
+    private final ChatBotSessionSpill sessionSpill;
+
+    /**
+     * Cross-server session persistence, or {@code null} when {@code session.sync.enable} is off
+     * or startup warm-up has not completed.
+     */
+    private volatile ChatBotSessionSync sessionSync;
+
+    /**
+     * Whether the asynchronous startup phase has completed.
+     */
+    private volatile boolean ready;
+
+    /**
+     * Players whose session was already persisted during shutdown, so it is saved only once.
+     */
+    private final Set<UUID> persistedOnShutdown = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Whether new chat messages are accepted; cleared when shutdown begins.
+     */
+    private volatile boolean accepting = true;
+
     /**
      * Constructs a new ChatBotListener.
      *
      * @param plugin     The plugin instance.
      * @param folderPath The folder path used for config and resource loading (relative to plugin data folder).
+     * @param config     The already parsed ChatBot config.
      * @param logger     Extension logger used for contextual logging.
+     * @param dispatcher Dispatcher used to send provider requests.
+     * @param filter     Local pre-dispatch message filter.
+     * @param contextManager Player state snapshot provider, or {@code null} if disabled.
+     * @param auditLog   Audit log of prompts and replies, or {@code null} if disabled.
+     * @param sessionSpill Idle session eviction and disk spill, or {@code null} if disabled.
      */
-    public ChatBotListener(Plugin plugin, String folderPath, MCEngineExtensionLogger logger) {
+    public ChatBotListener(Plugin plugin, String folderPath, FileConfiguration config, MCEngineExtensionLogger logger,
+                           ChatBotDispatcher dispatcher, ChatBotMessageFilter filter, ChatBotContextManager contextManager,
+                           ChatBotAuditLog auditLog, ChatBotSessionSpill sessionSpill) {
         this.plugin = plugin;
         this.folderPath = folderPath;
         this.logger = logger;
-
-        File configFile = new File(plugin.getDataFolder(), folderPath + "/config.yml");
-        FileConfiguration config = YamlConfiguration.loadConfiguration(configFile);
+        this.dispatcher = dispatcher;
+        this.filter = filter;
+        this.contextManager = contextManager;
+        this.auditLog = auditLog;
+        this.sessionSpill = sessionSpill;
 
         this.tokenType = config.getString("token.type", "server");
         this.systemPrompt = config.getString("ai.system.prompt", "");
+        this.groupBatchWindowMs = Math.max(1L, config.getLong("group.batch.window.ms", 1500L));
+
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = Executors.newCachedThreadPool(r -> {
+            Thread t = new Thread(r, "MCEngineChatBot-Worker-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        this.toolEngine = config.getBoolean("tools.enable", false)
+            ? new ChatBotToolEngine(plugin, executor,
+                config.getInt("tools.max.iterations", 3),
+                config.getLong("tools.timeout.ms", 30000L))
+            : null;
+
+        this.renderer = config.getBoolean("render.enable", true)
+            ? new ChatBotReplyRenderer(
+                config.getInt("render.line.width", 55),
+                config.getInt("render.page.lines", 10))
+            : null;
+        ChatBotReplyCache.setMaxReplies(config.getInt("render.cache.replies", 3));
     }
 
     /**
@@ -88,13 +218,33 @@ public class ChatBotListener implements Listener {
     public void onChat(AsyncPlayerChatEvent event) {
         Player player = event.getPlayer();
 
-        if (!MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) return;
+        ChatBotGroupSession group = ChatBotGroupManager.get(player.getUniqueId());
+        if (group == null && !MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) {
+            // Transparently reload a conversation that was spilled to disk while idle
+            if (sessionSpill == null || !sessionSpill.restore(player)) return;
+        }
 
         event.setCancelled(true);
         event.getRecipients().clear();
 
+        if (!accepting) {
+            player.sendMessage(ChatColor.RED + "❌ The AI chatbot is shutting down. Please try again shortly.");
+            return;
+        }
+
+        if (!ready) {
+            player.sendMessage(ChatColor.YELLOW + "⏳ The AI chatbot is still warming up. Please try again in a moment.");
+            return;
+        }
+
+        if (group != null) {
+            onGroupChat(player, group, event.getMessage().trim());
+            return;
+        }
+
         MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
         String originalMessage = event.getMessage().trim();
+        if (sessionSpill != null) sessionSpill.touch(player);
 
         if (api.checkWaitingPlayer(player)) {
             player.sendMessage(ChatColor.RED + "⏳ Please wait for the AI to respond before sending another message.");
@@ -103,7 +253,7 @@ public class ChatBotListener implements Listener {
 
         // Handle 'quit' command
         if (originalMessage.equalsIgnoreCase("quit")) {
-            Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            executor.execute(() -> {
                 String history = MCEngineArtificialIntelligenceApiUtilBotManager.get(player);
                 FileConfiguration config = ChatBotConfigLoader.getCustomConfig(plugin, folderPath);
 
@@ -116,7 +266,7 @@ public class ChatBotListener implements Listener {
                     if (playerEmail != null && !playerEmail.isEmpty()) {
                         ChatBotListenerUtil.sendDataToEmail(plugin, folderPath, history, playerEmail);
 
-                        Bukkit.getScheduler().runTask(plugin, () ->
+                        runSync(() ->
                             player.sendMessage(ChatColor.RED + "Your chat history has been sent to your email!")
                         );
                     } else {
@@ -125,14 +275,23 @@ public class ChatBotListener implements Listener {
                 }
 
                 MCEngineArtificialIntelligenceApiUtilBotManager.terminate(player);
+                if (sessionSync != null) sessionSync.discard(player.getUniqueId());
+                if (sessionSpill != null) sessionSpill.discard(player.getUniqueId());
 
-                Bukkit.getScheduler().runTask(plugin, () ->
+                runSync(() ->
                     player.sendMessage(ChatColor.RED + "❌ AI conversation ended.")
                 );
             });
             return;
         }
 
+        // Local pre-dispatch filter
+        ChatBotMessageFilter.Result verdict = filter.check(player.getUniqueId(), originalMessage);
+        if (verdict != ChatBotMessageFilter.Result.ALLOWED) {
+            player.sendMessage(rejectionMessage(verdict));
+            return;
+        }
+
         // Handle normal AI message
         player.sendMessage(ChatColor.GRAY + "[You → AI]: " + ChatColor.WHITE + originalMessage);
 
@@ -149,49 +308,485 @@ public class ChatBotListener implements Listener {
 
         // Mark the player as waiting to prevent duplicate task execution
         api.setWaiting(player, true);
+        if (auditLog != null) {
+            auditLog.record("prompt", player.getUniqueId(), player.getName(), platform, model, originalMessage);
+        }
 
-        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+        executor.execute(() -> {
             try {
-                JsonObject response;
-
-                if ("server".equalsIgnoreCase(tokenType)) {
-                    String context = MCEngineArtificialIntelligenceApiUtilBotManager.get(player);
-                    response = api.getResponse(platform, model, context, preparedMessage);
-                } else if ("player".equalsIgnoreCase(tokenType)) {
-                    String token = api.getPlayerToken(player.getUniqueId().toString(), platform);
-                    if (token == null || token.isEmpty()) {
-                        throw new IllegalStateException("No token found for player.");
-                    }
-                    String context = MCEngineArtificialIntelligenceApiUtilBotManager.get(player);
-                    response = api.getResponse(platform, model, token, context, preparedMessage);
+                String token = resolveToken(player.getUniqueId(), platform);
+                String context = MCEngineArtificialIntelligenceApiUtilBotManager.get(player);
+                String state = contextManager != null ? contextManager.getSnapshot(player) : "";
+                String message = state.isEmpty() ? preparedMessage : preparedMessage + "\n\n[Player State]\n" + state;
+                ChatBotRequest request = new ChatBotRequest(platform, model, token, context, message);
+
+                final String reply;
+                final int tokensUsed;
+                if (toolEngine != null) {
+                    ChatBotToolEngine.Result result = toolEngine.run(player, dispatcher, request);
+                    reply = result.reply();
+                    tokensUsed = result.tokensUsed();
                 } else {
-                    throw new IllegalArgumentException("Unknown tokenType: " + tokenType);
+                    JsonObject response = dispatcher.execute(request);
+                    reply = api.getCompletionContent(response);
+                    tokensUsed = api.getTotalTokenUsage(response);
+                }
+                if (auditLog != null) {
+                    auditLog.record("reply", player.getUniqueId(), player.getName(), platform, model, reply);
                 }
-
-                String reply = api.getCompletionContent(response);
-                int tokensUsed = api.getTotalTokenUsage(response);
 
                 // Update conversation
                 MCEngineArtificialIntelligenceApiUtilBotManager.append(player, "[Player]: " + originalMessage);
                 MCEngineArtificialIntelligenceApiUtilBotManager.append(player, "[AI]: " + reply);
 
+                // Render off the main thread; the main thread only sends the finished page
+                BaseComponent[] firstPage = render(List.of(player.getUniqueId()), ChatColor.GOLD + "[AI → You]: ", reply);
+
                 // Send AI reply
-                Bukkit.getScheduler().runTask(plugin, () -> {
-                    player.sendMessage(ChatColor.GOLD + "[AI → You]: " + ChatColor.RESET + reply);
+                runSync(() -> {
+                    if (firstPage != null) {
+                        player.spigot().sendMessage(firstPage);
+                    } else {
+                        player.sendMessage(ChatColor.GOLD + "[AI → You]: " + ChatColor.RESET + reply);
+                    }
                     if (tokensUsed >= 0) {
                         player.sendMessage(ChatColor.GREEN + "[Tokens Used] " + ChatColor.WHITE + tokensUsed);
                     }
                 });
 
+                // Mark the session as live on this server so a server the player switches to waits for its save.
+                // Done after the reply is on its way, so the database round trips never delay it.
+                ChatBotSessionSync sync = sessionSync;
+                if (sync != null) {
+                    try {
+                        sync.hold(player.getUniqueId(), snapshot(player));
+                    } catch (RuntimeException e) {
+                        logger.warning("Failed to mark session of " + player.getName() + " as held: " + e.getMessage());
+                    }
+                }
+
             } catch (Exception e) {
                 logger.warning("AI chat failed for " + player.getName() + ": " + e.getMessage());
-                Bukkit.getScheduler().runTask(plugin, () ->
+                if (auditLog != null) {
+                    auditLog.record("error", player.getUniqueId(), player.getName(), platform, model, e.getMessage());
+                }
+                if (ChatBotTokenCache.isAuthError(e)) ChatBotTokenCache.invalidate(player.getUniqueId(), platform);
+                // Let the player resend the same message
+                filter.release(player.getUniqueId(), originalMessage);
+                runSync(() ->
                     player.sendMessage(ChatColor.RED + "❌ Failed to process your AI message.")
                 );
             } finally {
                 // Unmark the player as waiting regardless of success or failure
                 api.setWaiting(player, false);
+
+                // Shutdown skipped this player while the reply was pending; persist it now.
+                ChatBotSessionSync sync = sessionSync;
+                if (!accepting && sync != null) persistOnShutdown(sync, player);
             }
         });
     }
+
+    /**
+     * Drops cached personal tokens when a player sets a new one via {@code /ai set token}.
+     * The preprocess event fires before the command runs, so the cache is cleared on the next tick,
+     * once the new token has been stored.
+     *
+     * @param event The command preprocess event.
+     */
+    @EventHandler
+    public void onTokenCommand(PlayerCommandPreprocessEvent event) {
+        String command = event.getMessage().toLowerCase();
+        if (command.startsWith("/ai set token")) {
+            UUID playerId = event.getPlayer().getUniqueId();
+            runSync(() -> ChatBotTokenCache.invalidate(playerId));
+        }
+    }
+
+    /**
+     * Clears cached tokens and group membership when a player disconnects and,
+     * if cross-server sync is enabled, persists their active session.
+     *
+     * @param event The player quit event.
+     */
+    @EventHandler
+    public void onQuit(PlayerQuitEvent event) {
+        Player player = event.getPlayer();
+        UUID playerId = player.getUniqueId();
+        ChatBotTokenCache.invalidate(playerId);
+        filter.forget(playerId);
+        if (contextManager != null) contextManager.forget(playerId);
+        ChatBotReplyCache.forget(playerId);
+        if (ChatBotGroupManager.isInGroup(playerId)) {
+            ChatBotCommand.leaveGroup(player);
+        }
+
+        ChatBotSessionSync sync = sessionSync;
+        if (sync == null) {
+            // Nobody can resume a spilled session once the player has left
+            if (sessionSpill != null && sessionSpill.isSpilled(playerId)) sessionSpill.discard(playerId);
+            return;
+        }
+
+        persist(sync, player, true);
+    }
+
+    /**
+     * Saves a player's session (resident or spilled) to the shared database and releases it for
+     * other servers. The save runs on the executor, or inline if the executor no longer accepts work.
+     *
+     * @param sync      Cross-server session persistence.
+     * @param player    The player.
+     * @param terminate Whether to end the in-memory session afterwards (on quit).
+     */
+    private void persist(ChatBotSessionSync sync, Player player, boolean terminate) {
+        UUID playerId = player.getUniqueId();
+
+        if (sessionSpill != null && sessionSpill.isSpilled(playerId)) {
+            // Hand a locally spilled session to cross-server sync so the next server can restore it
+            executeOrRun(() -> {
+                ChatBotSessionSnapshot spilled = sessionSpill.take(playerId);
+                if (spilled != null) sync.save(playerId, spilled);
+            });
+            return;
+        }
+
+        if (!MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) return;
+
+        ChatBotSessionSnapshot snapshot = snapshot(player);
+        if (terminate) MCEngineArtificialIntelligenceApiUtilBotManager.terminate(player);
+        executeOrRun(() -> sync.save(playerId, snapshot));
+    }
+
+    /**
+     * Captures the player's current personal session.
+     *
+     * @param player The player.
+     * @return Platform, model and history of the session.
+     */
+    private static ChatBotSessionSnapshot snapshot(Player player) {
+        return new ChatBotSessionSnapshot(
+            MCEngineArtificialIntelligenceApiUtilBotManager.getPlatform(player),
+            MCEngineArtificialIntelligenceApiUtilBotManager.getModel(player),
+            MCEngineArtificialIntelligenceApiUtilBotManager.get(player)
+        );
+    }
+
+    /**
+     * Runs a task on the executor, or inline on the current thread once the executor is shutting
+     * down, so late saves are never lost.
+     *
+     * @param task Task to run.
+     */
+    private void executeOrRun(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            task.run();
+        }
+    }
+
+    /**
+     * Restores a session persisted by another server once the player has joined.
+     *
+     * @param event The player join event.
+     */
+    @EventHandler
+    public void onJoin(PlayerJoinEvent event) {
+        ChatBotSessionSync sync = sessionSync;
+        if (sync == null || !accepting) return;
+        restore(sync, event.getPlayer());
+    }
+
+    /**
+     * Waits off the main thread until the previous server has released the player's session, then
+     * restores it on the main thread. A session that can no longer be restored here (the player left
+     * or started another conversation) is released again so it is not left held.
+     *
+     * @param sync   Cross-server session persistence.
+     * @param player The player.
+     */
+    private void restore(ChatBotSessionSync sync, Player player) {
+        UUID playerId = player.getUniqueId();
+
+        executor.execute(() -> {
+            ChatBotSessionSnapshot snapshot;
+            try {
+                snapshot = sync.acquire(playerId);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (snapshot == null) return;
+
+            runSync(() -> {
+                if (!player.isOnline()) {
+                    executeOrRun(() -> sync.save(playerId, snapshot));
+                    return;
+                }
+                if (MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)
+                        || ChatBotGroupManager.isInGroup(playerId)) {
+                    // Already busy here: release the acquired row so it is not left held
+                    executeOrRun(() -> sync.save(playerId, snapshot));
+                    return;
+                }
+                MCEngineArtificialIntelligenceApiUtilBotManager.setModel(player, snapshot.platform(), snapshot.model());
+                MCEngineArtificialIntelligenceApiUtilBotManager.startConversation(player);
+                if (!snapshot.history().isEmpty()) {
+                    MCEngineArtificialIntelligenceApiUtilBotManager.append(player, snapshot.history());
+                }
+                MCEngineArtificialIntelligenceApiUtilBotManager.activate(player);
+                if (sessionSpill != null) sessionSpill.touch(player);
+                player.sendMessage(ChatColor.GREEN + "Your AI conversation has been restored.");
+                player.sendMessage(ChatColor.GRAY + "Type your message in chat. Type 'quit' to end the conversation.");
+            });
+        });
+    }
+
+    /**
+     * Buffers a group member's message and schedules a flush if none is pending.
+     *
+     * @param player  The sending member.
+     * @param group   The member's group conversation.
+     * @param message The trimmed chat message.
+     */
+    private void onGroupChat(Player player, ChatBotGroupSession group, String message) {
+        if (message.equalsIgnoreCase("quit")) {
+            runSync(() -> ChatBotCommand.leaveGroup(player));
+            return;
+        }
+        ChatBotMessageFilter.Result verdict = filter.check(player.getUniqueId(), message);
+        if (verdict != ChatBotMessageFilter.Result.ALLOWED) {
+            player.sendMessage(rejectionMessage(verdict));
+            return;
+        }
+
+        ChatBotCommand.broadcast(group.getMembers(),
+            ChatColor.GRAY + "[" + player.getName() + " → AI]: " + ChatColor.WHITE + message);
+
+        if (group.enqueue(player.getName(), message)) {
+            scheduleGroupFlush(group);
+        }
+    }
+
+    /**
+     * Schedules a flush of the group's pending messages after the batching window.
+     *
+     * @param group The group conversation.
+     */
+    private void scheduleGroupFlush(ChatBotGroupSession group) {
+        if (!accepting) return;
+        CompletableFuture.delayedExecutor(groupBatchWindowMs, TimeUnit.MILLISECONDS, executor)
+            .execute(() -> flushGroup(group));
+    }
+
+    /**
+     * Sends all buffered group messages as one request and broadcasts the reply to every member.
+     * Runs on an async scheduler thread.
+     *
+     * @param group The group conversation.
+     */
+    private void flushGroup(ChatBotGroupSession group) {
+        List<String> batch = group.beginFlush();
+        if (batch.isEmpty()) return;
+
+        MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
+        String userBlock = String.join("\n", batch);
+        String platform = group.getPlatform();
+        String model = group.getModel();
+        String groupLabel = "group:" + group.getLeaderId();
+        if (auditLog != null) auditLog.record("group_prompt", group.getLeaderId(), groupLabel, platform, model, userBlock);
+
+        try {
+            String token = resolveToken(group.getLeaderId(), platform);
+            String context = group.getHistory();
+            String message = "[Group Conversation]\n" + userBlock;
+            JsonObject response = dispatcher.execute(new ChatBotRequest(platform, model, token, context, message));
+
+            String reply = api.getCompletionContent(response);
+            int tokensUsed = api.getTotalTokenUsage(response);
+            group.appendExchange(userBlock, reply);
+            if (auditLog != null) auditLog.record("group_reply", group.getLeaderId(), groupLabel, platform, model, reply);
+
+            List<UUID> recipients = group.getMembers();
+            BaseComponent[] firstPage = render(recipients, ChatColor.GOLD + "[AI → Group]: ", reply);
+
+            runSync(() -> {
+                List<UUID> members = group.getMembers();
+                if (firstPage != null) {
+                    for (UUID memberId : members) {
+                        Player member = Bukkit.getPlayer(memberId);
+                        if (member != null) member.spigot().sendMessage(firstPage);
+                    }
+                } else {
+                    ChatBotCommand.broadcast(members, ChatColor.GOLD + "[AI → Group]: " + ChatColor.RESET + reply);
+                }
+                if (tokensUsed >= 0) {
+                    ChatBotCommand.broadcast(members, ChatColor.GREEN + "[Tokens Used] " + ChatColor.WHITE + tokensUsed);
+                }
+            });
+
+        } catch (Exception e) {
+            logger.warning("AI group chat failed for group of " + group.getLeaderId() + ": " + e.getMessage());
+            if (auditLog != null) auditLog.record("error", group.getLeaderId(), groupLabel, platform, model, e.getMessage());
+            if (ChatBotTokenCache.isAuthError(e)) ChatBotTokenCache.invalidate(group.getLeaderId(), platform);
+            // The batch mixes several senders; clear the members' duplicate history so anyone can resend
+            for (UUID memberId : group.getMembers()) filter.forget(memberId);
+            runSync(() ->
+                ChatBotCommand.broadcast(group.getMembers(), ChatColor.RED + "❌ Failed to process the group AI message.")
+            );
+        } finally {
+            if (group.finishFlush()) {
+                scheduleGroupFlush(group);
+            }
+        }
+    }
+
+    /**
+     * Renders a reply into pages and caches them for each recipient so later pages can be
+     * requested with {@code /ai chatbot page}. Runs on a worker thread.
+     *
+     * @param recipients Players who may page through the reply.
+     * @param prefix     Legacy-formatted prefix for the first page.
+     * @param reply      The Markdown reply.
+     * @return The first page, or {@code null} if rendering is disabled.
+     */
+    private BaseComponent[] render(List<UUID> recipients, String prefix, String reply) {
+        if (renderer == null) return null;
+        String replyId = ChatBotReplyCache.nextId();
+        List<BaseComponent[]> pages = renderer.render(prefix, reply, replyId);
+        for (UUID recipient : recipients) {
+            ChatBotReplyCache.put(recipient, replyId, pages);
+        }
+        return pages.get(0);
+    }
+
+    /**
+     * Returns the notice shown to a player whose message was rejected by the local filter.
+     *
+     * @param verdict The filter result.
+     * @return The chat message to send.
+     */
+    private static String rejectionMessage(ChatBotMessageFilter.Result verdict) {
+        return switch (verdict) {
+            case TOO_SHORT, NO_CONTENT -> ChatColor.RED + "❌ Your message is too short to send to the AI.";
+            case TOO_LONG -> ChatColor.RED + "❌ Your message is too long to send to the AI.";
+            case DUPLICATE -> ChatColor.RED + "❌ You just sent that message. Please wait before repeating it.";
+            case BLOCKED -> ChatColor.RED + "❌ That message cannot be sent to the AI.";
+            default -> "";
+        };
+    }
+
+    /**
+     * Resolves the token to send with a request according to the configured token type.
+     *
+     * @param playerId UUID of the player whose token is used in {@code player} mode.
+     * @param platform AI platform.
+     * @return the player token, or {@code null} to use the server token.
+     * @throws IllegalStateException    if {@code player} mode is active and the player has no token.
+     * @throws IllegalArgumentException if the token type is unknown.
+     */
+    private String resolveToken(UUID playerId, String platform) {
+        if ("server".equalsIgnoreCase(tokenType)) return null;
+        if ("player".equalsIgnoreCase(tokenType)) {
+            String token = ChatBotTokenCache.get(playerId, platform);
+            if (token == null) {
+                throw new IllegalStateException("No token found for player.");
+            }
+            return token;
+        }
+        throw new IllegalArgumentException("Unknown tokenType: " + tokenType);
+    }
+
+    /**
+     * Marks the asynchronous startup phase as complete so chat is routed to the AI.
+     *
+     * @param sessionSync Cross-server session persistence, or {@code null} if disabled.
+     */
+    public void markReady(ChatBotSessionSync sessionSync) {
+        this.sessionSync = sessionSync;
+        this.ready = true;
+        if (sessionSync != null) {
+            // Players already online (e.g. after a reload) never fire a join event
+            runSync(() -> Bukkit.getOnlinePlayers().forEach(player -> restore(sessionSync, player)));
+        }
+    }
+
+    /**
+     * Stops accepting chat and drains in-flight work. The listener must stay registered until this
+     * returns so chat from players in a session keeps being cancelled instead of going public.
+     * <p>
+     * Running requests, group flushes and quit/mail tasks are given until {@code timeoutMs} to finish;
+     * anything still running afterwards is interrupted.
+     *
+     * @param timeoutMs Maximum time to wait for in-flight work, in milliseconds.
+     * @return {@code true} if all work finished before the deadline.
+     */
+    public boolean shutdown(long timeoutMs) {
+        accepting = false;
+
+        // Persist sessions within the same deadline. Turns still waiting for a reply save their
+        // session themselves once the reply is appended (see onChat).
+        ChatBotSessionSync sync = sessionSync;
+        if (sync != null) {
+            MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
+            for (Player player : Bukkit.getOnlinePlayers()) {
+                if (!api.checkWaitingPlayer(player)) persistOnShutdown(sync, player);
+            }
+        }
+
+        executor.shutdown();
+        try {
+            if (executor.awaitTermination(timeoutMs, TimeUnit.MILLISECONDS)) return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        executor.shutdownNow();
+        return false;
+    }
+
+    /**
+     * Persists a player's session once during shutdown.
+     *
+     * @param sync   Cross-server session persistence.
+     * @param player The player.
+     */
+    private void persistOnShutdown(ChatBotSessionSync sync, Player player) {
+        if (persistedOnShutdown.add(player.getUniqueId())) persist(sync, player, false);
+    }
+
+    /**
+     * Ends every personal and group conversation of online players. Called on the main thread during
+     * unload after {@link #shutdown(long)}, so no session outlives the listener that routes its chat.
+     */
+    public void endSessions() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (ChatBotGroupManager.isInGroup(player.getUniqueId())) {
+                ChatBotGroupManager.leave(player.getUniqueId());
+                player.sendMessage(ChatColor.RED + "❌ AI group conversation ended because the chatbot was unloaded.");
+            }
+            if (!MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) continue;
+            MCEngineArtificialIntelligenceApiUtilBotManager.terminate(player);
+            if (persistedOnShutdown.contains(player.getUniqueId())) {
+                player.sendMessage(ChatColor.YELLOW + "⚠ AI conversation paused because the chatbot was unloaded; it resumes when you rejoin.");
+            } else {
+                player.sendMessage(ChatColor.RED + "❌ AI conversation ended because the chatbot was unloaded.");
+            }
+        }
+    }
+
+    /**
+     * Schedules a task on the main thread unless the plugin is no longer enabled,
+     * so late async completions never call back into an unloaded plugin.
+     *
+     * @param task Task to run on the main thread.
+     */
+    private void runSync(Runnable task) {
+        if (!plugin.isEnabled()) return;
+        try {
+            Bukkit.getScheduler().runTask(plugin, task);
+        } catch (IllegalPluginAccessException e) {
+            // Plugin disabled between the check and the scheduling call.
+        }
+    }
 }
@@ -0,0 +1,101 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.render;
+
+import net.md_5.bungee.api.chat.BaseComponent;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-player cache of rendered reply pages.
+ * <p>
+ * Each player keeps their most recent {@code render.cache.replies} replies; older ones are evicted
+ * first. Page navigation ({@code /ai chatbot page <id> <n>}) is served straight from this cache, so
+ * turning a page never re-renders or re-queries the provider.
+ */
+public class ChatBotReplyCache {
+
+    /**
+     * Source of reply ids.
+     */
+    private static final AtomicLong nextId = new AtomicLong();
+
+    /**
+     * Rendered pages per player, keyed by reply id in insertion order.
+     */
+    private static final Map<UUID, LinkedHashMap<String, List<BaseComponent[]>>> cache = new ConcurrentHashMap<>();
+
+    /**
+     * Replies kept per player.
+     */
+    private static volatile int maxReplies = 3;
+
+    /**
+     * Sets how many replies are kept per player.
+     *
+     * @param replies replies per player
+     */
+    public static void setMaxReplies(int replies) {
+        maxReplies = Math.max(1, replies);
+    }
+
+    /**
+     * Allocates a new reply id.
+     *
+     * @return short base-36 id
+     */
+    public static String nextId() {
+        return Long.toString(nextId.incrementAndGet(), 36);
+    }
+
+    /**
+     * Stores rendered pages for a player, evicting their oldest replies beyond the limit.
+     *
+     * @param playerId player UUID
+     * @param replyId  reply id
+     * @param pages    rendered pages
+     */
+    public static void put(UUID playerId, String replyId, List<BaseComponent[]> pages) {
+        LinkedHashMap<String, List<BaseComponent[]>> replies = cache.computeIfAbsent(playerId, id -> new LinkedHashMap<>());
+        synchronized (replies) {
+            replies.put(replyId, pages);
+            Iterator<String> it = replies.keySet().iterator();
+            while (replies.size() > maxReplies && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns a cached page.
+     *
+     * @param playerId player UUID
+     * @param replyId  reply id
+     * @param page     1-based page number
+     * @return the page, or {@code null} if the reply expired or the page does not exist
+     */
+    public static BaseComponent[] getPage(UUID playerId, String replyId, int page) {
+        LinkedHashMap<String, List<BaseComponent[]>> replies = cache.get(playerId);
+        if (replies == null) return null;
+        List<BaseComponent[]> pages;
+        synchronized (replies) {
+            pages = replies.get(replyId);
+        }
+        if (pages == null || page < 1 || page > pages.size()) return null;
+        return pages.get(page - 1);
+    }
+
+    /**
+     * Drops all cached replies for a player, e.g. on logout.
+     *
+     * @param playerId player UUID
+     */
+    public static void forget(UUID playerId) {
+        cache.remove(playerId);
+    }
+}
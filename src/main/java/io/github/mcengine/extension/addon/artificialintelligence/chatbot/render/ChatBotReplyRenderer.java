@@ -0,0 +1,412 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.render;
+
+import net.md_5.bungee.api.ChatColor;
+import net.md_5.bungee.api.chat.BaseComponent;
+import net.md_5.bungee.api.chat.ClickEvent;
+import net.md_5.bungee.api.chat.HoverEvent;
+import net.md_5.bungee.api.chat.TextComponent;
+import net.md_5.bungee.api.chat.hover.content.Text;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Converts Markdown AI replies into paginated chat components.
+ * <p>
+ * Supports headings, bullet and numbered lists, fenced code blocks, and inline {@code **bold**},
+ * {@code *italic*}/{@code _italic_}, {@code ~~strike~~}, {@code `code`} and {@code [text](url)}.
+ * Only well-formed {@code http}/{@code https} links become clickable; any other link target is shown
+ * as plain text.
+ * Text is word-wrapped to {@code render.line.width} characters and split into pages of
+ * {@code render.page.lines} lines; multi-page replies get clickable previous/next links served by
+ * {@code /ai chatbot page}. All parsing and layout happens here so callers can run it off the main
+ * thread and only send the finished components.
+ */
+public class ChatBotReplyRenderer {
+
+    /**
+     * Maximum accepted link length.
+     */
+    private static final int MAX_URL_LENGTH = 512;
+
+    /**
+     * Maximum characters per chat line.
+     */
+    private final int lineWidth;
+
+    /**
+     * Lines per page.
+     */
+    private final int pageLines;
+
+    /**
+     * A run of text with uniform style.
+     */
+    private static final class Span {
+        private final String text;
+        private final ChatColor color;
+        private final boolean bold;
+        private final boolean italic;
+        private final boolean strike;
+        private final String url;
+
+        private Span(String text, ChatColor color, boolean bold, boolean italic, boolean strike, String url) {
+            this.text = text;
+            this.color = color;
+            this.bold = bold;
+            this.italic = italic;
+            this.strike = strike;
+            this.url = url;
+        }
+
+        private Span withText(String newText) {
+            return new Span(newText, color, bold, italic, strike, url);
+        }
+    }
+
+    /**
+     * Creates a renderer.
+     *
+     * @param lineWidth maximum characters per chat line
+     * @param pageLines lines per page
+     */
+    public ChatBotReplyRenderer(int lineWidth, int pageLines) {
+        this.lineWidth = Math.max(20, lineWidth);
+        this.pageLines = Math.max(3, pageLines);
+    }
+
+    /**
+     * Renders a reply into complete chat pages, including the prefix on the first page and
+     * navigation links when there is more than one page.
+     *
+     * @param prefix  legacy-formatted prefix, e.g. {@code "§6[AI → You]: "}
+     * @param reply   Markdown reply
+     * @param replyId cache id used by the navigation commands
+     * @return one component array per page
+     */
+    public List<BaseComponent[]> render(String prefix, String reply, String replyId) {
+        List<List<Span>> lines = wrap(parse(reply == null ? "" : reply));
+        if (lines.isEmpty()) lines.add(new ArrayList<>());
+
+        int total = (lines.size() + pageLines - 1) / pageLines;
+        List<BaseComponent[]> pages = new ArrayList<>(total);
+        for (int page = 0; page < total; page++) {
+            TextComponent root = new TextComponent();
+            if (page == 0 && prefix != null && !prefix.isEmpty()) {
+                for (BaseComponent part : TextComponent.fromLegacyText(prefix)) root.addExtra(part);
+            }
+
+            int from = page * pageLines;
+            int to = Math.min(lines.size(), from + pageLines);
+            for (int i = from; i < to; i++) {
+                if (i > from) root.addExtra("\n");
+                for (Span span : lines.get(i)) root.addExtra(toComponent(span));
+            }
+
+            if (total > 1) {
+                root.addExtra("\n");
+                root.addExtra(navigation(replyId, page + 1, total));
+            }
+            pages.add(new BaseComponent[] { root });
+        }
+        return pages;
+    }
+
+    /**
+     * Builds the {@code [« Prev] Page n/m [Next »]} footer.
+     *
+     * @param replyId cache id
+     * @param page    1-based page number
+     * @param total   total pages
+     * @return navigation component
+     */
+    private static BaseComponent navigation(String replyId, int page, int total) {
+        TextComponent nav = new TextComponent();
+        if (page > 1) nav.addExtra(link("[« Prev]", "/ai chatbot page " + replyId + " " + (page - 1)));
+        TextComponent label = new TextComponent(" Page " + page + "/" + total + " ");
+        label.setColor(ChatColor.GRAY);
+        nav.addExtra(label);
+        if (page < total) nav.addExtra(link("[Next »]", "/ai chatbot page " + replyId + " " + (page + 1)));
+        return nav;
+    }
+
+    /**
+     * Creates a clickable command link.
+     *
+     * @param text    link text
+     * @param command command to run on click
+     * @return link component
+     */
+    private static BaseComponent link(String text, String command) {
+        TextComponent link = new TextComponent(text);
+        link.setColor(ChatColor.AQUA);
+        link.setClickEvent(new ClickEvent(ClickEvent.Action.RUN_COMMAND, command));
+        link.setHoverEvent(new HoverEvent(HoverEvent.Action.SHOW_TEXT, new Text(command)));
+        return link;
+    }
+
+    /**
+     * Validates a Markdown link target.
+     *
+     * @param target raw link target
+     * @return the normalized URL, or {@code null} unless it is a well-formed http(s) URL with a host
+     */
+    private static String safeUrl(String target) {
+        if (target.isEmpty() || target.length() > MAX_URL_LENGTH) return null;
+        for (int i = 0; i < target.length(); i++) {
+            char c = target.charAt(i);
+            if (Character.isWhitespace(c) || Character.isISOControl(c)) return null;
+        }
+        try {
+            URI uri = new URI(target);
+            String scheme = uri.getScheme();
+            if (scheme == null || !(scheme.equalsIgnoreCase("http") || scheme.equalsIgnoreCase("https"))) return null;
+            if (uri.getHost() == null || uri.getHost().isEmpty()) return null;
+            return uri.toASCIIString();
+        } catch (URISyntaxException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Converts a styled span into a component.
+     *
+     * @param span span
+     * @return component
+     */
+    private static BaseComponent toComponent(Span span) {
+        TextComponent c = new TextComponent(span.text);
+        c.setColor(span.color);
+        if (span.bold) c.setBold(true);
+        if (span.italic) c.setItalic(true);
+        if (span.strike) c.setStrikethrough(true);
+        if (span.url != null) {
+            c.setUnderlined(true);
+            c.setClickEvent(new ClickEvent(ClickEvent.Action.OPEN_URL, span.url));
+        }
+        return c;
+    }
+
+    /**
+     * Parses Markdown into logical lines of styled spans.
+     *
+     * @param markdown source text
+     * @return logical lines
+     */
+    private static List<List<Span>> parse(String markdown) {
+        List<List<Span>> lines = new ArrayList<>();
+        boolean inCode = false;
+
+        for (String raw : markdown.replace("\r", "").split("\n", -1)) {
+            String line = raw.stripTrailing();
+
+            if (line.stripLeading().startsWith("```")) {
+                inCode = !inCode;
+                continue;
+            }
+            if (inCode) {
+                List<Span> code = new ArrayList<>();
+                code.add(new Span(line.isEmpty() ? " " : line, ChatColor.GRAY, false, false, false, null));
+                lines.add(code);
+                continue;
+            }
+
+            String trimmed = line.stripLeading();
+            if (trimmed.startsWith("#")) {
+                int level = 0;
+                while (level < trimmed.length() && trimmed.charAt(level) == '#') level++;
+                List<Span> heading = new ArrayList<>();
+                heading.add(new Span(trimmed.substring(level).trim(), ChatColor.GOLD, true, false, false, null));
+                lines.add(heading);
+                continue;
+            }
+
+            List<Span> spans = new ArrayList<>();
+            int indent = (line.length() - trimmed.length()) / 2;
+            int number = numberedItemLength(trimmed);
+            if (trimmed.startsWith("- ") || trimmed.startsWith("* ") || trimmed.startsWith("+ ")) {
+                spans.add(new Span("  ".repeat(indent) + "• ", ChatColor.YELLOW, false, false, false, null));
+                trimmed = trimmed.substring(2);
+            } else if (number > 0) {
+                spans.add(new Span("  ".repeat(indent) + trimmed.substring(0, number - 1).replace(')', '.') + " ",
+                        ChatColor.YELLOW, false, false, false, null));
+                trimmed = trimmed.substring(number);
+            }
+            parseInline(trimmed, spans);
+            lines.add(spans);
+        }
+
+        // Collapse runs of blank lines.
+        List<List<Span>> result = new ArrayList<>(lines.size());
+        boolean lastBlank = true;
+        for (List<Span> line : lines) {
+            boolean blank = line.stream().allMatch(s -> s.text.isBlank());
+            if (blank && lastBlank) continue;
+            result.add(line);
+            lastBlank = blank;
+        }
+        while (!result.isEmpty() && result.get(result.size() - 1).stream().allMatch(s -> s.text.isBlank())) {
+            result.remove(result.size() - 1);
+        }
+        return result;
+    }
+
+    /**
+     * Returns the length of a numbered list marker such as {@code 1. } or {@code 2) }.
+     *
+     * @param line line without leading whitespace
+     * @return marker length including the trailing space, or {@code 0} if the line is not a numbered item
+     */
+    private static int numberedItemLength(String line) {
+        int digits = 0;
+        while (digits < line.length() && digits < 9 && Character.isDigit(line.charAt(digits))) digits++;
+        if (digits == 0 || digits + 1 >= line.length()) return 0;
+        char marker = line.charAt(digits);
+        if ((marker != '.' && marker != ')') || line.charAt(digits + 1) != ' ') return 0;
+        return digits + 2;
+    }
+
+    /**
+     * Parses inline Markdown markers into spans.
+     *
+     * @param text  line text
+     * @param spans output spans
+     */
+    private static void parseInline(String text, List<Span> spans) {
+        boolean bold = false, italic = false, strike = false;
+        StringBuilder buf = new StringBuilder();
+        int i = 0;
+        while (i < text.length()) {
+            char c = text.charAt(i);
+
+            if (c == '`') {
+                int end = text.indexOf('`', i + 1);
+                if (end > i) {
+                    flush(buf, spans, bold, italic, strike);
+                    spans.add(new Span(text.substring(i + 1, end), ChatColor.AQUA, false, false, false, null));
+                    i = end + 1;
+                    continue;
+                }
+            } else if (c == '[') {
+                int close = text.indexOf("](", i);
+                int end = close > i ? text.indexOf(')', close + 2) : -1;
+                if (end > close) {
+                    String url = safeUrl(text.substring(close + 2, end).trim());
+                    if (url == null) {
+                        // Not a link we are willing to open: keep the source as plain text
+                        buf.append(text, i, end + 1);
+                    } else {
+                        flush(buf, spans, bold, italic, strike);
+                        spans.add(new Span(text.substring(i + 1, close), ChatColor.BLUE, bold, italic, strike, url));
+                    }
+                    i = end + 1;
+                    continue;
+                }
+            } else if (text.startsWith("**", i) || text.startsWith("__", i)) {
+                flush(buf, spans, bold, italic, strike);
+                bold = !bold;
+                i += 2;
+                continue;
+            } else if (text.startsWith("~~", i)) {
+                flush(buf, spans, bold, italic, strike);
+                strike = !strike;
+                i += 2;
+                continue;
+            } else if ((c == '*' || c == '_') && isEmphasisMarker(text, i, italic)) {
+                flush(buf, spans, bold, italic, strike);
+                italic = !italic;
+                i++;
+                continue;
+            }
+
+            buf.append(c);
+            i++;
+        }
+        flush(buf, spans, bold, italic, strike);
+    }
+
+    /**
+     * Decides whether a single {@code *} or {@code _} toggles italics rather than being literal
+     * (e.g. {@code snake_case} or {@code 2 * 3}).
+     *
+     * @param text    line text
+     * @param i       marker index
+     * @param closing whether italics are currently open
+     * @return {@code true} if the character is an emphasis marker
+     */
+    private static boolean isEmphasisMarker(String text, int i, boolean closing) {
+        char before = i > 0 ? text.charAt(i - 1) : ' ';
+        char after = i + 1 < text.length() ? text.charAt(i + 1) : ' ';
+        if (closing) return !Character.isWhitespace(before) && !Character.isLetterOrDigit(after);
+        return !Character.isWhitespace(after) && !Character.isLetterOrDigit(before);
+    }
+
+    /**
+     * Emits buffered text as a span with the current style.
+     */
+    private static void flush(StringBuilder buf, List<Span> spans, boolean bold, boolean italic, boolean strike) {
+        if (buf.length() == 0) return;
+        spans.add(new Span(buf.toString(), ChatColor.WHITE, bold, italic, strike, null));
+        buf.setLength(0);
+    }
+
+    /**
+     * Word-wraps logical lines to the configured width.
+     *
+     * @param logical logical lines
+     * @return visual lines
+     */
+    private List<List<Span>> wrap(List<List<Span>> logical) {
+        List<List<Span>> visual = new ArrayList<>();
+        for (List<Span> line : logical) {
+            List<Span> current = new ArrayList<>();
+            int width = 0;
+            for (Span span : line) {
+                for (String word : splitKeepingSpaces(span.text)) {
+                    String piece = word;
+                    while (width + piece.length() > lineWidth) {
+                        if (width > 0 && piece.length() <= lineWidth) {
+                            visual.add(current);
+                            current = new ArrayList<>();
+                            width = 0;
+                            piece = piece.stripLeading();
+                            continue;
+                        }
+                        int room = lineWidth - width;
+                        current.add(span.withText(piece.substring(0, room)));
+                        visual.add(current);
+                        current = new ArrayList<>();
+                        width = 0;
+                        piece = piece.substring(room);
+                    }
+                    if (!piece.isEmpty()) {
+                        current.add(span.withText(piece));
+                        width += piece.length();
+                    }
+                }
+            }
+            visual.add(current);
+        }
+        return visual;
+    }
+
+    /**
+     * Splits text into words, each keeping its leading whitespace.
+     *
+     * @param text text
+     * @return words
+     */
+    private static List<String> splitKeepingSpaces(String text) {
+        List<String> words = new ArrayList<>();
+        int start = 0;
+        for (int i = 1; i <= text.length(); i++) {
+            if (i == text.length() || (text.charAt(i) == ' ' && text.charAt(i - 1) != ' ')) {
+                words.add(text.substring(start, i));
+                start = i;
+            }
+        }
+        return words;
+    }
+}
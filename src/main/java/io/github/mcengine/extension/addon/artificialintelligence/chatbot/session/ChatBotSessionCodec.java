@@ -0,0 +1,109 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.session;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Compact binary codec for {@link ChatBotSessionSnapshot}.
+ * <p>
+ * Layout (deflated, then Base64-encoded for text columns):
+ * <pre>
+ *   byte   format version
+ *   UTF    platform
+ *   UTF    model
+ *   int    history length in bytes
+ *   byte[] history (UTF-8)
+ * </pre>
+ * Deflate runs at {@link Deflater#BEST_SPEED} so encoding stays cheap enough for every server transfer.
+ */
+public class ChatBotSessionCodec {
+
+    /**
+     * Current payload format version.
+     */
+    private static final byte FORMAT_VERSION = 1;
+
+    /**
+     * Largest history accepted when decoding, in bytes, so a corrupt length cannot trigger a huge allocation.
+     */
+    private static final int MAX_HISTORY_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * Encodes a snapshot into a Base64 string, keeping at most {@code maxHistoryChars} of the most
+     * recent history.
+     *
+     * @param snapshot        snapshot to encode
+     * @param maxHistoryChars maximum history characters to keep; {@code <= 0} keeps everything
+     * @return Base64 payload
+     * @throws IOException if encoding fails
+     */
+    public static String encode(ChatBotSessionSnapshot snapshot, int maxHistoryChars) throws IOException {
+        byte[] history = compact(snapshot.history(), maxHistoryChars).getBytes(StandardCharsets.UTF_8);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + history.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DataOutputStream out = new DataOutputStream(new DeflaterOutputStream(bytes, deflater))) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeUTF(snapshot.platform());
+            out.writeUTF(snapshot.model());
+            out.writeInt(history.length);
+            out.write(history);
+        } finally {
+            deflater.end();
+        }
+        return Base64.getEncoder().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Decodes a Base64 payload produced by {@link #encode(ChatBotSessionSnapshot, int)}.
+     *
+     * @param data Base64 payload
+     * @return the decoded snapshot
+     * @throws IOException if the payload is corrupt or of an unknown format
+     */
+    public static ChatBotSessionSnapshot decode(String data) throws IOException {
+        byte[] raw = Base64.getDecoder().decode(data);
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = new DataInputStream(new InflaterInputStream(new ByteArrayInputStream(raw), inflater))) {
+            byte format = in.readByte();
+            if (format != FORMAT_VERSION) {
+                throw new IOException("Unsupported session format: " + format);
+            }
+            String platform = in.readUTF();
+            String model = in.readUTF();
+            int length = in.readInt();
+            if (length < 0 || length > MAX_HISTORY_BYTES) {
+                throw new IOException("Invalid session history length: " + length);
+            }
+            byte[] history = new byte[length];
+            in.readFully(history);
+            return new ChatBotSessionSnapshot(platform, model, new String(history, StandardCharsets.UTF_8));
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Keeps the most recent part of the history, cutting at a line boundary where possible.
+     *
+     * @param history  full history
+     * @param maxChars maximum characters to keep; {@code <= 0} keeps everything
+     * @return compacted history
+     */
+    public static String compact(String history, int maxChars) {
+        if (history == null) return "";
+        if (maxChars <= 0 || history.length() <= maxChars) return history;
+        int start = history.length() - maxChars;
+        int newline = history.indexOf('\n', start);
+        return newline >= 0 && newline + 1 < history.length() ? history.substring(newline + 1) : history.substring(start);
+    }
+}
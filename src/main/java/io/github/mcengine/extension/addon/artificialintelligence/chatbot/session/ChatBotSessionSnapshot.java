@@ -0,0 +1,10 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.session;
+
+/**
+ * Immutable capture of a player's chatbot session.
+ *
+ * @param platform AI platform
+ * @param model    AI model
+ * @param history  conversation history
+ */
+public record ChatBotSessionSnapshot(String platform, String model, String history) {}
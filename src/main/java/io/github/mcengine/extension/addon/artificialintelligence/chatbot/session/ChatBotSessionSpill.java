@@ -0,0 +1,564 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.session;
+
+import io.github.mcengine.api.artificialintelligence.util.MCEngineArtificialIntelligenceApiUtilBotManager;
+import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
+import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.group.ChatBotGroupManager;
+import org.bukkit.entity.Player;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the heap used by personal conversations held in
+ * {@link MCEngineArtificialIntelligenceApiUtilBotManager}.
+ * <p>
+ * Every tracked session records when it was last used. A background sweep spills sessions idle
+ * longer than {@code session.idle.timeout.ms} to a compact file (see {@link ChatBotSessionCodec}) and
+ * terminates them in memory; if the estimated resident size still exceeds {@code session.memory.max.bytes},
+ * the coldest remaining sessions are spilled too. A spilled session is reloaded transparently the next
+ * time the player chats. Sessions waiting for a reply are never spilled. Entries are keyed by UUID and
+ * only reference the {@link Player} while the session is in memory; sessions of players who went offline
+ * are ended instead of spilled.
+ */
+public class ChatBotSessionSpill {
+
+    /**
+     * File extension of spilled sessions.
+     */
+    private static final String EXTENSION = ".session";
+
+    /**
+     * Directory holding spilled sessions.
+     */
+    private final Path directory;
+
+    /**
+     * Idle time after which a session is spilled, in milliseconds.
+     */
+    private final long idleTimeoutMs;
+
+    /**
+     * Estimated resident bytes above which the coldest sessions are spilled.
+     */
+    private final long maxBytes;
+
+    /**
+     * Logger for diagnostics.
+     */
+    private final MCEngineExtensionLogger logger;
+
+    /**
+     * Tracked sessions per player.
+     */
+    private final Map<UUID, Entry> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * Thread running the periodic sweep and spill-file housekeeping.
+     */
+    private final ScheduledExecutorService sweeper;
+
+    /**
+     * Sessions spilled since startup.
+     */
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Sessions reloaded since startup.
+     */
+    private final LongAdder reloads = new LongAdder();
+
+    /**
+     * Estimated resident bytes measured by the last sweep.
+     */
+    private volatile long residentBytes;
+
+    /**
+     * Lifecycle of a tracked session.
+     */
+    private enum State {
+        /** Held in memory by the bot manager. */
+        RESIDENT,
+        /** Still in memory while its spill file is being written. */
+        SPILLING,
+        /** On disk only. */
+        SPILLED,
+        /** Being read back from disk. */
+        LOADING,
+        /** No longer tracked. */
+        REMOVED
+    }
+
+    /**
+     * Tracking state of one player's session. Guarded by its own monitor, which is never held
+     * during file I/O.
+     */
+    private static final class Entry {
+        /** Session owner while the session is in memory; {@code null} once spilled or removed. */
+        private Player player;
+        private State state = State.RESIDENT;
+        private long lastActive = System.currentTimeMillis();
+        /** Incremented on every use, so a spill can detect activity while its file was written. */
+        private long generation;
+        private long bytes;
+    }
+
+    /**
+     * Creates the spill store and starts the periodic sweep. Spill files left by a previous run
+     * are removed, since their in-memory sessions no longer exist.
+     *
+     * @param directory       directory for spilled sessions (created if missing)
+     * @param idleTimeoutMs   idle time before a session is spilled
+     * @param maxBytes        estimated resident bytes before the coldest sessions are spilled
+     * @param sweepIntervalMs time between sweeps
+     * @param logger          logger for diagnostics
+     */
+    public ChatBotSessionSpill(Path directory, long idleTimeoutMs, long maxBytes, long sweepIntervalMs,
+                               MCEngineExtensionLogger logger) {
+        this.directory = directory;
+        this.idleTimeoutMs = Math.max(1000L, idleTimeoutMs);
+        this.maxBytes = Math.max(0L, maxBytes);
+        this.logger = logger;
+
+        this.sweeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "MCEngineChatBot-SessionSweep");
+            t.setDaemon(true);
+            return t;
+        });
+        sweeper.execute(this::clearDirectory);
+        long interval = Math.max(1000L, sweepIntervalMs);
+        sweeper.scheduleWithFixedDelay(this::sweepSafely, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Marks a player's session as used now. Starting a new conversation discards any spilled one.
+     *
+     * @param player the player
+     */
+    public void touch(Player player) {
+        UUID playerId = player.getUniqueId();
+        while (true) {
+            Entry entry = sessions.computeIfAbsent(playerId, id -> new Entry());
+            boolean stale;
+            synchronized (entry) {
+                if (entry.state == State.REMOVED) continue;
+                stale = entry.state == State.SPILLED || entry.state == State.LOADING;
+                // A spill in progress notices the new generation and keeps the session resident.
+                if (entry.state != State.SPILLING) entry.state = State.RESIDENT;
+                entry.player = player;
+                entry.lastActive = System.currentTimeMillis();
+                entry.generation++;
+            }
+            if (stale) deleteLater(file(playerId));
+            return;
+        }
+    }
+
+    /**
+     * Reloads a spilled session into memory if the player has one. Performs blocking file I/O;
+     * call it off the main thread (e.g. from the async chat event).
+     *
+     * @param player the player
+     * @return {@code true} if a session was restored and is now active
+     */
+    public boolean restore(Player player) {
+        UUID playerId = player.getUniqueId();
+        Entry entry = sessions.get(playerId);
+        if (entry == null) return false;
+        synchronized (entry) {
+            if (entry.state != State.SPILLED) return false;
+            entry.state = State.LOADING;
+        }
+
+        ChatBotSessionSnapshot snapshot = read(playerId);
+
+        synchronized (entry) {
+            // Superseded by a new conversation, a discard or a hand-off to cross-server sync.
+            if (entry.state != State.LOADING) return false;
+            if (snapshot == null) {
+                entry.state = State.REMOVED;
+                sessions.remove(playerId, entry);
+            } else {
+                MCEngineArtificialIntelligenceApiUtilBotManager.setModel(player, snapshot.platform(), snapshot.model());
+                MCEngineArtificialIntelligenceApiUtilBotManager.startConversation(player);
+                if (!snapshot.history().isEmpty()) {
+                    MCEngineArtificialIntelligenceApiUtilBotManager.append(player, snapshot.history());
+                }
+                MCEngineArtificialIntelligenceApiUtilBotManager.activate(player);
+
+                entry.state = State.RESIDENT;
+                entry.player = player;
+                entry.lastActive = System.currentTimeMillis();
+                entry.generation++;
+                entry.bytes = estimate(snapshot.history());
+            }
+        }
+        deleteLater(file(playerId));
+        if (snapshot == null) return false;
+        reloads.increment();
+        return true;
+    }
+
+    /**
+     * Removes a player's spilled session and returns it, e.g. to hand it to cross-server sync on quit.
+     * Performs blocking file I/O.
+     *
+     * @param playerId player UUID
+     * @return the spilled session, or {@code null} if none
+     */
+    public ChatBotSessionSnapshot take(UUID playerId) {
+        Entry entry = sessions.get(playerId);
+        if (entry == null) return null;
+        synchronized (entry) {
+            if (entry.state != State.SPILLED && entry.state != State.LOADING) return null;
+            entry.state = State.REMOVED;
+            sessions.remove(playerId, entry);
+        }
+        ChatBotSessionSnapshot snapshot = read(playerId);
+        deleteQuietly(file(playerId));
+        return snapshot;
+    }
+
+    /**
+     * Stops tracking a player and deletes any spilled session, e.g. when the conversation ends
+     * or a player with a spilled session leaves.
+     *
+     * @param playerId player UUID
+     */
+    public void discard(UUID playerId) {
+        Entry entry = sessions.remove(playerId);
+        if (entry == null) return;
+        boolean stale;
+        synchronized (entry) {
+            stale = entry.state == State.SPILLED || entry.state == State.LOADING;
+            // A spill in progress sees the removal and deletes its own file.
+            entry.state = State.REMOVED;
+            entry.player = null;
+        }
+        if (stale) deleteLater(file(playerId));
+    }
+
+    /**
+     * Returns whether a player has a spilled session waiting to be reloaded.
+     *
+     * @param playerId player UUID
+     * @return {@code true} if spilled
+     */
+    public boolean isSpilled(UUID playerId) {
+        Entry entry = sessions.get(playerId);
+        if (entry == null) return false;
+        synchronized (entry) {
+            return entry.state == State.SPILLED || entry.state == State.LOADING;
+        }
+    }
+
+    /** @return estimated resident conversation bytes (personal and group) measured by the last sweep */
+    public long getResidentBytes() {
+        return residentBytes;
+    }
+
+    /** @return configured resident byte cap, {@code 0} if unlimited */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /** @return number of sessions currently held in memory */
+    public int getResidentSessions() {
+        return count(true);
+    }
+
+    /** @return number of sessions currently spilled */
+    public int getSpilledSessions() {
+        return count(false);
+    }
+
+    /** @return sessions spilled since startup */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /** @return sessions reloaded since startup */
+    public long getReloads() {
+        return reloads.sum();
+    }
+
+    /**
+     * Stops the sweep. Spilled sessions remain on disk until the next startup clears them.
+     */
+    public void close() {
+        sweeper.shutdownNow();
+    }
+
+    /**
+     * Runs a sweep, logging instead of propagating failures so the schedule keeps running.
+     */
+    private void sweepSafely() {
+        try {
+            sweep();
+        } catch (RuntimeException e) {
+            if (logger != null) logger.warning("[ChatBotSessionSpill] Sweep failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Measures resident sessions, spills idle ones and then the coldest until under the byte cap.
+     * Group histories cannot be spilled but count towards the cap.
+     */
+    private void sweep() {
+        long now = System.currentTimeMillis();
+        long total = ChatBotGroupManager.getResidentBytes();
+        List<Map.Entry<UUID, Entry>> resident = new ArrayList<>();
+
+        for (Map.Entry<UUID, Entry> e : sessions.entrySet()) {
+            Entry entry = e.getValue();
+            boolean idle;
+            long bytes;
+            synchronized (entry) {
+                if (entry.state != State.RESIDENT || entry.player == null) continue;
+                if (!MCEngineArtificialIntelligenceApiUtilBotManager.isActive(entry.player)) {
+                    // Ended via quit or terminated elsewhere (e.g. cross-server sync on logout).
+                    entry.state = State.REMOVED;
+                    entry.player = null;
+                    sessions.remove(e.getKey(), entry);
+                    continue;
+                }
+                entry.bytes = estimate(MCEngineArtificialIntelligenceApiUtilBotManager.get(entry.player));
+                bytes = entry.bytes;
+                idle = now - entry.lastActive >= idleTimeoutMs;
+            }
+            if (idle && spill(e.getKey(), entry)) continue;
+            total += bytes;
+            resident.add(e);
+        }
+
+        if (maxBytes > 0 && total > maxBytes) {
+            resident.sort(Comparator.comparingLong(e -> lastActive(e.getValue())));
+            for (Map.Entry<UUID, Entry> e : resident) {
+                if (total <= maxBytes) break;
+                if (spill(e.getKey(), e.getValue())) total -= bytes(e.getValue());
+            }
+        }
+        residentBytes = total;
+    }
+
+    /**
+     * Writes a session to disk and terminates it in memory. The session is captured under the entry
+     * monitor, the file is written without it, and the spill only completes if the session was not
+     * used, ended or handed off in the meantime. A session of a player who has gone offline is ended
+     * and no longer tracked.
+     *
+     * @param playerId player UUID
+     * @param entry    tracking entry
+     * @return {@code true} if the session left memory
+     */
+    private boolean spill(UUID playerId, Entry entry) {
+        MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
+        Player player;
+        long generation;
+        ChatBotSessionSnapshot snapshot;
+        synchronized (entry) {
+            if (entry.state != State.RESIDENT || entry.player == null) return false;
+            player = entry.player;
+            if (api.checkWaitingPlayer(player)) return false;
+            if (!player.isOnline()) {
+                drop(playerId, entry, player);
+                return true;
+            }
+            snapshot = new ChatBotSessionSnapshot(
+                    MCEngineArtificialIntelligenceApiUtilBotManager.getPlatform(player),
+                    MCEngineArtificialIntelligenceApiUtilBotManager.getModel(player),
+                    MCEngineArtificialIntelligenceApiUtilBotManager.get(player));
+            generation = entry.generation;
+            entry.state = State.SPILLING;
+        }
+
+        boolean written = write(playerId, snapshot);
+
+        boolean spilled = false;
+        boolean stale = written;
+        synchronized (entry) {
+            if (entry.state == State.SPILLING) {
+                if (written && entry.generation == generation && !api.checkWaitingPlayer(player)
+                        && MCEngineArtificialIntelligenceApiUtilBotManager.isActive(player)) {
+                    if (player.isOnline()) {
+                        MCEngineArtificialIntelligenceApiUtilBotManager.terminate(player);
+                        entry.state = State.SPILLED;
+                        entry.player = null;
+                        evictions.increment();
+                        spilled = true;
+                        stale = false;
+                    } else {
+                        drop(playerId, entry, player);
+                        spilled = true;
+                    }
+                } else {
+                    entry.state = State.RESIDENT;
+                }
+            }
+        }
+        if (stale) deleteQuietly(file(playerId));
+        return spilled;
+    }
+
+    /**
+     * Ends the in-memory session of a player who has gone offline and stops tracking it; nobody can
+     * resume it, so nothing is written. Caller holds the entry monitor.
+     *
+     * @param playerId player UUID
+     * @param entry    tracking entry
+     * @param player   the offline player
+     */
+    private void drop(UUID playerId, Entry entry, Player player) {
+        MCEngineArtificialIntelligenceApiUtilBotManager.terminate(player);
+        entry.state = State.REMOVED;
+        entry.player = null;
+        sessions.remove(playerId, entry);
+        evictions.increment();
+    }
+
+    /**
+     * Writes a spill file atomically.
+     *
+     * @param playerId player UUID
+     * @param snapshot session to write
+     * @return {@code true} if written
+     */
+    private boolean write(UUID playerId, ChatBotSessionSnapshot snapshot) {
+        Path temp = directory.resolve(playerId + EXTENSION + ".tmp");
+        try {
+            Files.createDirectories(directory);
+            Files.write(temp, ChatBotSessionCodec.encode(snapshot, 0).getBytes(StandardCharsets.US_ASCII));
+            Files.move(temp, file(playerId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            if (logger != null) logger.warning("[ChatBotSessionSpill] Failed to spill session for " + playerId + ": " + e.getMessage());
+            deleteQuietly(temp);
+            return false;
+        }
+    }
+
+    /**
+     * Reads a spilled session from disk.
+     *
+     * @param playerId player UUID
+     * @return the session, or {@code null} if missing or unreadable
+     */
+    private ChatBotSessionSnapshot read(UUID playerId) {
+        try {
+            String data = new String(Files.readAllBytes(file(playerId)), StandardCharsets.US_ASCII);
+            return ChatBotSessionCodec.decode(data);
+        } catch (Exception e) {
+            if (logger != null) logger.warning("[ChatBotSessionSpill] Discarding unreadable session for " + playerId + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Removes spill files left over from a previous run.
+     */
+    private void clearDirectory() {
+        if (!Files.isDirectory(directory)) return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + EXTENSION + "*")) {
+            stream.forEach(ChatBotSessionSpill::deleteQuietly);
+        } catch (IOException e) {
+            if (logger != null) logger.warning("[ChatBotSessionSpill] Failed to clear spill directory: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Counts resident or spilled sessions.
+     *
+     * @param resident {@code true} to count sessions in memory, {@code false} for spilled ones
+     * @return number of sessions
+     */
+    private int count(boolean resident) {
+        int count = 0;
+        for (Entry entry : sessions.values()) {
+            synchronized (entry) {
+                boolean inMemory = entry.state == State.RESIDENT || entry.state == State.SPILLING;
+                boolean onDisk = entry.state == State.SPILLED || entry.state == State.LOADING;
+                if (resident ? inMemory : onDisk) count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns the entry's last activity time under its monitor.
+     */
+    private static long lastActive(Entry entry) {
+        synchronized (entry) {
+            return entry.lastActive;
+        }
+    }
+
+    /**
+     * Returns the entry's estimated size under its monitor.
+     */
+    private static long bytes(Entry entry) {
+        synchronized (entry) {
+            return entry.bytes;
+        }
+    }
+
+    /**
+     * Estimates the heap footprint of a conversation string (two bytes per character).
+     *
+     * @param history conversation text
+     * @return estimated bytes
+     */
+    private static long estimate(String history) {
+        return history == null ? 0L : 2L * history.length();
+    }
+
+    /**
+     * Returns the spill file of a player.
+     *
+     * @param playerId player UUID
+     * @return spill file path
+     */
+    private Path file(UUID playerId) {
+        return directory.resolve(playerId + EXTENSION);
+    }
+
+    /**
+     * Deletes a file on the sweep thread, or inline if the sweep has stopped.
+     *
+     * @param path file to delete
+     */
+    private void deleteLater(Path path) {
+        try {
+            sweeper.execute(() -> deleteQuietly(path));
+        } catch (RejectedExecutionException e) {
+            deleteQuietly(path);
+        }
+    }
+
+    /**
+     * Deletes a file, ignoring errors.
+     *
+     * @param path file to delete
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ignored) {
+            // A leftover file is cleared on the next startup.
+        }
+    }
+}
@@ -0,0 +1,208 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.session;
+
+import io.github.mcengine.api.core.extension.logger.MCEngineExtensionLogger;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.ChatBotDB;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.database.ChatBotSessionRecord;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Persists active sessions to {@link ChatBotDB} so a conversation survives a server switch
+ * behind a BungeeCord/Velocity proxy.
+ * <p>
+ * Hand-off between servers uses the row's version and hold flag instead of timing guesses:
+ * the server running a session marks the row as <em>held</em> once the conversation has content,
+ * and clears the flag with its final save on quit or shutdown. A server the player joins waits until
+ * the row is released (or {@code session.sync.join.timeout.ms} passes, e.g. after a crash), then loads
+ * it and marks it held itself. Writes are optimistic; on a version conflict the row is re-read and
+ * the write retried unless another server holds the live session.
+ * All methods perform blocking database I/O and must be called off the main thread.
+ */
+public class ChatBotSessionSync {
+
+    /**
+     * Interval between reads while waiting for another server to release a session, in milliseconds.
+     */
+    private static final long POLL_MS = 250L;
+
+    /**
+     * Maximum write attempts when versions conflict.
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /**
+     * Database accessor.
+     */
+    private final ChatBotDB db;
+
+    /**
+     * Maximum history characters kept in the persisted payload.
+     */
+    private final int maxHistoryChars;
+
+    /**
+     * Maximum time to wait for another server to release a session on join, in milliseconds.
+     */
+    private final long joinTimeoutMs;
+
+    /**
+     * Logger for diagnostics.
+     */
+    private final MCEngineExtensionLogger logger;
+
+    /**
+     * Last version observed or written per player on this server.
+     */
+    private final Map<UUID, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * Players whose row this server has marked as held.
+     */
+    private final Set<UUID> held = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Creates the session sync helper.
+     *
+     * @param db              database accessor
+     * @param maxHistoryChars maximum history characters kept in the payload
+     * @param joinTimeoutMs   maximum wait for another server to release a session on join
+     * @param logger          logger for diagnostics
+     */
+    public ChatBotSessionSync(ChatBotDB db, int maxHistoryChars, long joinTimeoutMs, MCEngineExtensionLogger logger) {
+        this.db = db;
+        this.maxHistoryChars = maxHistoryChars;
+        this.joinTimeoutMs = Math.max(0L, joinTimeoutMs);
+        this.logger = logger;
+    }
+
+    /**
+     * Loads the persisted session of a player once no other server holds it, and marks it held by
+     * this server.
+     *
+     * @param playerId player UUID
+     * @return the session, or {@code null} if none is stored or it cannot be decoded
+     * @throws InterruptedException if interrupted while waiting for the previous server
+     */
+    public ChatBotSessionSnapshot acquire(UUID playerId) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + joinTimeoutMs;
+        ChatBotSessionRecord record;
+        while (true) {
+            record = db.getSession(playerId);
+            if (record == null) {
+                versions.remove(playerId);
+                return null;
+            }
+            if (!record.held()) break;
+            if (System.currentTimeMillis() >= deadline) {
+                if (logger != null) logger.warning("[ChatBotSessionSync] Session for " + playerId
+                        + " is still held by another server after " + joinTimeoutMs + " ms; taking over the last saved copy.");
+                break;
+            }
+            Thread.sleep(POLL_MS);
+        }
+        versions.put(playerId, record.version());
+
+        ChatBotSessionSnapshot snapshot;
+        try {
+            snapshot = ChatBotSessionCodec.decode(record.data());
+        } catch (Exception e) {
+            if (logger != null) logger.warning("[ChatBotSessionSync] Discarding unreadable session for " + playerId + ": " + e.getMessage());
+            return null;
+        }
+        write(playerId, snapshot, true);
+        return snapshot;
+    }
+
+    /**
+     * Marks a live session as held by this server, so a server the player switches to waits for its
+     * final save. Does nothing if this server already holds it.
+     *
+     * @param playerId player UUID
+     * @param snapshot current session state
+     */
+    public void hold(UUID playerId, ChatBotSessionSnapshot snapshot) {
+        if (held.contains(playerId)) return;
+        write(playerId, snapshot, true);
+    }
+
+    /**
+     * Saves the final state of a session and releases it for other servers.
+     *
+     * @param playerId player UUID
+     * @param snapshot session to save
+     * @return {@code true} if written
+     */
+    public boolean save(UUID playerId, ChatBotSessionSnapshot snapshot) {
+        try {
+            return write(playerId, snapshot, false);
+        } finally {
+            // The next server (or this one on rejoin) reloads the current version on join.
+            held.remove(playerId);
+            versions.remove(playerId);
+        }
+    }
+
+    /**
+     * Deletes the persisted session, e.g. when the player ends the conversation.
+     *
+     * @param playerId player UUID
+     */
+    public void discard(UUID playerId) {
+        held.remove(playerId);
+        versions.remove(playerId);
+        db.deleteSession(playerId);
+    }
+
+    /**
+     * Writes a session with optimistic versioning, re-reading the row and retrying on conflict.
+     * A conflicting row that another server holds belongs to a live session elsewhere and is kept.
+     *
+     * @param playerId player UUID
+     * @param snapshot session to write
+     * @param hold     whether the row stays held by this server
+     * @return {@code true} if written
+     */
+    private boolean write(UUID playerId, ChatBotSessionSnapshot snapshot, boolean hold) {
+        String data;
+        try {
+            data = ChatBotSessionCodec.encode(snapshot, maxHistoryChars);
+        } catch (Exception e) {
+            if (logger != null) logger.warning("[ChatBotSessionSync] Failed to encode session for " + playerId + ": " + e.getMessage());
+            return false;
+        }
+
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            long expected = versions.getOrDefault(playerId, 0L);
+            if (db.saveSession(playerId, data, expected, hold)) {
+                versions.put(playerId, expected + 1);
+                if (hold) held.add(playerId); else held.remove(playerId);
+                return true;
+            }
+
+            ChatBotSessionRecord current = db.getSession(playerId);
+            if (current == null) {
+                if (expected > 0) {
+                    if (logger != null) logger.warning("[ChatBotSessionSync] Session for " + playerId
+                            + " was ended on another server; not restoring it from this server.");
+                    return false;
+                }
+                continue;
+            }
+            if (current.held()) {
+                // Someone else wrote a held row after us, i.e. another server took the session over.
+                held.remove(playerId);
+                if (logger != null) logger.warning("[ChatBotSessionSync] Session for " + playerId
+                        + " is live on another server (version " + current.version() + "); keeping that copy.");
+                return false;
+            }
+            // Released or stale row: this server has the latest state, so write over it.
+            versions.put(playerId, current.version());
+        }
+        if (logger != null) logger.warning("[ChatBotSessionSync] Failed to save session for " + playerId
+                + " after " + MAX_ATTEMPTS + " attempts.");
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package io.github.mcengine.extension.addon.artificialintelligence.chatbot.tabcompleter;
 
 import io.github.mcengine.api.artificialintelligence.util.MCEngineArtificialIntelligenceApiUtilAi;
+import org.bukkit.Bukkit;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandSender;
 import org.bukkit.command.TabCompleter;
@@ -13,6 +14,8 @@ import java.util.*;
  * Supports suggestions for:
  * - /ai chatbot set email &lt;your@email.com&gt;
  * - /ai chatbot &lt;platform&gt; &lt;model&gt;
+ * - /ai chatbot group &lt;create|join|leave&gt; ...
+ * - /ai chatbot stats
  */
 public class ChatBotTabCompleter implements TabCompleter {
 
@@ -33,6 +36,8 @@ public class ChatBotTabCompleter implements TabCompleter {
         if (args.length == 1) {
             List<String> suggestions = new ArrayList<>(models.keySet());
             suggestions.add("set");
+            suggestions.add("group");
+            suggestions.add("stats");
             Collections.sort(suggestions);
             return filterPrefix(suggestions, args[0]);
         }
@@ -47,6 +52,11 @@ public class ChatBotTabCompleter implements TabCompleter {
             return Collections.emptyList();
         }
 
+        // /ai chatbot group <action> ...
+        if (args.length >= 2 && args[0].equalsIgnoreCase("group")) {
+            return completeGroup(models, args);
+        }
+
         // /ai chatbot <platform> <model>
         if (args.length == 2) {
             String platform = args[0];
@@ -60,6 +70,45 @@ public class ChatBotTabCompleter implements TabCompleter {
         return Collections.emptyList();
     }
 
+    /**
+     * Provides suggestions for /ai chatbot group subcommands.
+     *
+     * @param models Registered models per platform.
+     * @param args   The arguments passed after "/ai chatbot"
+     * @return A list of completions.
+     */
+    private List<String> completeGroup(Map<String, Map<String, ?>> models, String[] args) {
+        if (args.length == 2) {
+            return filterPrefix(List.of("create", "join", "leave"), args[1]);
+        }
+
+        String action = args[1];
+
+        // /ai chatbot group create <platform> <model>
+        if (action.equalsIgnoreCase("create")) {
+            if (args.length == 3) {
+                List<String> platforms = new ArrayList<>(models.keySet());
+                Collections.sort(platforms);
+                return filterPrefix(platforms, args[2]);
+            }
+            if (args.length == 4 && models.containsKey(args[2])) {
+                List<String> modelNames = new ArrayList<>(models.get(args[2]).keySet());
+                Collections.sort(modelNames);
+                return filterPrefix(modelNames, args[3]);
+            }
+        }
+
+        // /ai chatbot group join <leader>
+        if (action.equalsIgnoreCase("join") && args.length == 3) {
+            List<String> names = new ArrayList<>();
+            Bukkit.getOnlinePlayers().forEach(p -> names.add(p.getName()));
+            Collections.sort(names);
+            return filterPrefix(names, args[2]);
+        }
+
+        return Collections.emptyList();
+    }
+
     /**
      * Filters tab completion results by prefix.
      *
@@ -0,0 +1,44 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.tool;
+
+import org.bukkit.entity.Player;
+
+/**
+ * A server function the model may call during a chatbot turn.
+ * <p>
+ * Register implementations with {@link ChatBotToolRegistry#register(ChatBotTool)}. Tools that touch
+ * the Bukkit world must return {@code true} from {@link #isMainThread()}; the engine batches all such
+ * calls of one round into a single main-thread task. Other tools run in parallel on worker threads.
+ */
+public interface ChatBotTool {
+
+    /**
+     * Returns the unique tool name the model uses to call it.
+     *
+     * @return tool name (letters, digits and underscores)
+     */
+    String getName();
+
+    /**
+     * Returns a one-line description shown to the model.
+     *
+     * @return description
+     */
+    String getDescription();
+
+    /**
+     * Whether the tool must run on the main server thread.
+     *
+     * @return {@code true} for main-thread tools
+     */
+    boolean isMainThread();
+
+    /**
+     * Executes the tool.
+     *
+     * @param player   the player whose turn requested the call
+     * @param argument free-form argument supplied by the model (may be empty)
+     * @return a short textual result for the model
+     * @throws Exception if the tool fails; the failure is reported to the model
+     */
+    String execute(Player player, String argument) throws Exception;
+}
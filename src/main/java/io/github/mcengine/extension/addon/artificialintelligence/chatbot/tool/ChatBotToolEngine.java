@@ -0,0 +1,253 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.tool;
+
+import com.google.gson.JsonObject;
+import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch.ChatBotDispatcher;
+import io.github.mcengine.extension.addon.artificialintelligence.chatbot.dispatch.ChatBotRequest;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs a chatbot turn as a tool-calling loop.
+ * <p>
+ * The model is told which {@link ChatBotTool}s exist and may request them by replying with
+ * {@code <<tool:name argument>>} markers. Each round, all distinct calls are executed together:
+ * worker-thread tools in parallel on the add-on executor, main-thread tools batched into one
+ * scheduler task. Results are cached for the rest of the turn and fed back to the model until it
+ * answers without tool calls, or the iteration or time cap is reached.
+ */
+public class ChatBotToolEngine {
+
+    /**
+     * Matches {@code <<tool:name optional argument>>}.
+     */
+    private static final Pattern TOOL_CALL = Pattern.compile("<<tool:([A-Za-z0-9_]+)(?:\\s+([^>]*))?>>");
+
+    /**
+     * Plugin used for main-thread scheduling.
+     */
+    private final Plugin plugin;
+
+    /**
+     * Executor for worker-thread tools.
+     */
+    private final ExecutorService executor;
+
+    /**
+     * Maximum model requests per turn.
+     */
+    private final int maxIterations;
+
+    /**
+     * Time budget for a turn, in milliseconds.
+     */
+    private final long timeoutMs;
+
+    /**
+     * Result of a turn.
+     *
+     * @param reply      final reply text
+     * @param tokensUsed total tokens across all requests, or {@code -1} if unknown
+     * @param toolCalls  number of distinct tool calls executed
+     */
+    public record Result(String reply, int tokensUsed, int toolCalls) {}
+
+    /**
+     * Creates the engine.
+     *
+     * @param plugin        plugin used for main-thread scheduling
+     * @param executor      executor for worker-thread tools
+     * @param maxIterations maximum model requests per turn
+     * @param timeoutMs     time budget for a turn in milliseconds
+     */
+    public ChatBotToolEngine(Plugin plugin, ExecutorService executor, int maxIterations, long timeoutMs) {
+        this.plugin = plugin;
+        this.executor = executor;
+        this.maxIterations = Math.max(1, maxIterations);
+        this.timeoutMs = Math.max(1000L, timeoutMs);
+    }
+
+    /**
+     * Runs a turn. Must be called off the main thread.
+     *
+     * @param player     the player
+     * @param dispatcher dispatcher used for model requests
+     * @param request    initial request (context and prepared message)
+     * @return the final reply
+     * @throws Exception if a model request fails
+     */
+    public Result run(Player player, ChatBotDispatcher dispatcher, ChatBotRequest request) throws Exception {
+        MCEngineArtificialIntelligenceCommon api = MCEngineArtificialIntelligenceCommon.getApi();
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        Map<String, String> cache = new LinkedHashMap<>();
+
+        String context = request.context();
+        String message = request.message() + "\n\n" + describeTools();
+        int tokens = 0;
+        boolean tokensKnown = true;
+
+        for (int iteration = 1; ; iteration++) {
+            JsonObject response = dispatcher.execute(
+                    new ChatBotRequest(request.platform(), request.model(), request.token(), context, message));
+            String reply = api.getCompletionContent(response);
+            int used = api.getTotalTokenUsage(response);
+            if (used >= 0) tokens += used; else tokensKnown = false;
+
+            List<String[]> calls = parse(reply);
+            boolean outOfBudget = iteration >= maxIterations || System.currentTimeMillis() >= deadline;
+            if (calls.isEmpty() || outOfBudget) {
+                String answer = TOOL_CALL.matcher(reply).replaceAll("").trim();
+                if (answer.isEmpty()) answer = "I could not finish looking that up in time.";
+                return new Result(answer, tokensKnown ? tokens : -1, cache.size());
+            }
+
+            String results = execute(player, calls, cache, deadline);
+            context = context == null ? "" : context;
+            // The stored history does not contain this turn's question yet; keep it ahead of the tool call
+            if (iteration == 1) context += "\n[Player]: " + request.message();
+            context += "\n[AI]: " + reply;
+            message = "[Function Info]\n" + results
+                    + "\nUse these results to answer the player. Request more tools only if required.";
+        }
+    }
+
+    /**
+     * Executes one round of tool calls, reusing results cached earlier in the turn.
+     * Calls still pending at the deadline are cancelled, and a main-thread batch that has not run
+     * by then is skipped.
+     *
+     * @param player   the player
+     * @param calls    parsed calls as {@code [name, argument]}
+     * @param cache    per-turn result cache keyed by {@code name argument}
+     * @param deadline turn deadline in epoch milliseconds
+     * @return formatted results, one line per call
+     */
+    private String execute(Player player, List<String[]> calls, Map<String, String> cache, long deadline) {
+        Map<String, CompletableFuture<String>> futures = new LinkedHashMap<>();
+        Map<String, ChatBotTool> mainThreadCalls = new LinkedHashMap<>();
+        Map<String, String> mainThreadArgs = new LinkedHashMap<>();
+
+        for (String[] call : calls) {
+            String key = call[0] + " " + call[1];
+            if (futures.containsKey(key)) continue;
+            if (cache.containsKey(key)) {
+                futures.put(key, CompletableFuture.completedFuture(cache.get(key)));
+                continue;
+            }
+
+            ChatBotTool tool = ChatBotToolRegistry.get(call[0]);
+            if (tool == null) {
+                futures.put(key, CompletableFuture.completedFuture("error: unknown tool"));
+            } else if (tool.isMainThread()) {
+                futures.put(key, new CompletableFuture<>());
+                mainThreadCalls.put(key, tool);
+                mainThreadArgs.put(key, call[1]);
+            } else {
+                futures.put(key, CompletableFuture.supplyAsync(() -> invoke(tool, player, call[1]), executor));
+            }
+        }
+
+        AtomicBoolean roundOver = new AtomicBoolean();
+        if (!mainThreadCalls.isEmpty()) {
+            Runnable batch = () -> mainThreadCalls.forEach((key, tool) -> {
+                if (roundOver.get() || futures.get(key).isDone()) return;
+                futures.get(key).complete(invoke(tool, player, mainThreadArgs.get(key)));
+            });
+            try {
+                Bukkit.getScheduler().runTask(plugin, batch);
+            } catch (Exception e) {
+                mainThreadCalls.keySet().forEach(key -> futures.get(key).complete("error: server unavailable"));
+            }
+        }
+
+        StringBuilder out = new StringBuilder();
+        try {
+            for (Map.Entry<String, CompletableFuture<String>> entry : futures.entrySet()) {
+                String result;
+                try {
+                    long remaining = Math.max(1L, deadline - System.currentTimeMillis());
+                    result = entry.getValue().get(remaining, TimeUnit.MILLISECONDS);
+                    cache.put(entry.getKey(), result);
+                } catch (TimeoutException e) {
+                    result = "error: timed out";
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    result = "error: " + cause.getMessage();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    result = "error: interrupted";
+                } catch (RuntimeException e) {
+                    result = "error: " + e.getMessage();
+                }
+                out.append("- ").append(entry.getKey().trim()).append(": ").append(result).append('\n');
+            }
+        } finally {
+            // Queued worker tasks that have not started are dropped; the main-thread batch sees the flag
+            roundOver.set(true);
+            for (CompletableFuture<String> future : futures.values()) future.cancel(true);
+        }
+        return out.toString();
+    }
+
+    /**
+     * Invokes a tool, converting failures into an error result for the model.
+     *
+     * @param tool     the tool
+     * @param player   the player
+     * @param argument model-supplied argument
+     * @return result text
+     */
+    private static String invoke(ChatBotTool tool, Player player, String argument) {
+        try {
+            String result = tool.execute(player, argument);
+            return result != null ? result : "";
+        } catch (Exception e) {
+            return "error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Extracts tool calls from a reply.
+     *
+     * @param reply model reply
+     * @return calls as {@code [name, argument]}
+     */
+    private static List<String[]> parse(String reply) {
+        List<String[]> calls = new ArrayList<>();
+        if (reply == null) return calls;
+        Matcher m = TOOL_CALL.matcher(reply);
+        while (m.find()) {
+            calls.add(new String[] { m.group(1).toLowerCase(), m.group(2) != null ? m.group(2).trim() : "" });
+        }
+        return calls;
+    }
+
+    /**
+     * Describes the registered tools and the call syntax for the model.
+     *
+     * @return tool instructions
+     */
+    private static String describeTools() {
+        StringBuilder sb = new StringBuilder("[Tools]\n")
+                .append("To use server data, reply only with one or more lines of the form <<tool:NAME ARGUMENT>>. ")
+                .append("Independent calls may be requested together. Otherwise answer normally.\n");
+        for (ChatBotTool tool : ChatBotToolRegistry.getAll()) {
+            sb.append("- ").append(tool.getName()).append(": ").append(tool.getDescription()).append('\n');
+        }
+        return sb.toString();
+    }
+}
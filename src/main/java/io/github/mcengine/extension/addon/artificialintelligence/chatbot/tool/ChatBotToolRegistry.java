@@ -0,0 +1,149 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.tool;
+
+import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Registry of {@link ChatBotTool}s available to the model.
+ * <p>
+ * Built-in tools:
+ * <ul>
+ *   <li>{@code match} — looks up server function info via {@code getMessageMatch}.</li>
+ *   <li>{@code online_players} — lists online player names.</li>
+ *   <li>{@code world_info} — time and weather of the player's world.</li>
+ * </ul>
+ */
+public class ChatBotToolRegistry {
+
+    /**
+     * Registered tools keyed by lower-case name.
+     */
+    private static final Map<String, ChatBotTool> tools = new ConcurrentHashMap<>();
+
+    static {
+        register(new SimpleTool("match", "Looks up server function info related to the argument text.", false,
+                (player, arg) -> {
+                    String match = MCEngineArtificialIntelligenceCommon.getApi().getMessageMatch(player, arg);
+                    return match != null ? match : "no match";
+                }));
+        register(new SimpleTool("online_players", "Lists the names of online players.", true,
+                (player, arg) -> {
+                    List<String> names = new ArrayList<>();
+                    Bukkit.getOnlinePlayers().forEach(p -> names.add(p.getName()));
+                    return names.size() + " online: " + String.join(", ", names);
+                }));
+        register(new SimpleTool("world_info", "Returns the time of day and weather in the player's world.", true,
+                (player, arg) -> {
+                    World world = player.getLocation().getWorld();
+                    if (world == null) return "unknown world";
+                    return "world=" + world.getName() + " time=" + world.getTime() + " storm=" + world.hasStorm();
+                }));
+    }
+
+    /**
+     * Registers (or replaces) a tool.
+     *
+     * @param tool the tool
+     */
+    public static void register(ChatBotTool tool) {
+        tools.put(tool.getName().toLowerCase(), tool);
+    }
+
+    /**
+     * Removes a tool.
+     *
+     * @param name tool name
+     */
+    public static void unregister(String name) {
+        tools.remove(name.toLowerCase());
+    }
+
+    /**
+     * Looks up a tool by name.
+     *
+     * @param name tool name
+     * @return the tool or {@code null}
+     */
+    public static ChatBotTool get(String name) {
+        return tools.get(name.toLowerCase());
+    }
+
+    /**
+     * Returns all registered tools.
+     *
+     * @return registered tools
+     */
+    public static Collection<ChatBotTool> getAll() {
+        return tools.values();
+    }
+
+    /**
+     * Function body of a {@link SimpleTool}.
+     */
+    @FunctionalInterface
+    public interface ToolFunction {
+        /**
+         * Executes the tool.
+         *
+         * @param player   requesting player
+         * @param argument model-supplied argument
+         * @return result text
+         * @throws Exception on failure
+         */
+        String apply(Player player, String argument) throws Exception;
+    }
+
+    /**
+     * {@link ChatBotTool} backed by a {@link ToolFunction}.
+     */
+    public static class SimpleTool implements ChatBotTool {
+
+        private final String name;
+        private final String description;
+        private final boolean mainThread;
+        private final ToolFunction function;
+
+        /**
+         * Creates a tool.
+         *
+         * @param name        tool name
+         * @param description one-line description for the model
+         * @param mainThread  whether the tool must run on the main thread
+         * @param function    tool body
+         */
+        public SimpleTool(String name, String description, boolean mainThread, ToolFunction function) {
+            this.name = name;
+            this.description = description;
+            this.mainThread = mainThread;
+            this.function = function;
+        }
+
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Override
+        public String getDescription() {
+            return description;
+        }
+
+        @Override
+        public boolean isMainThread() {
+            return mainThread;
+        }
+
+        @Override
+        public String execute(Player player, String argument) throws Exception {
+            return function.apply(player, argument);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.mcengine.extension.addon.artificialintelligence.chatbot.util;
+
+import io.github.mcengine.common.artificialintelligence.MCEngineArtificialIntelligenceCommon;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Per-player, per-platform cache of personal API tokens used in {@code token.type: player} mode.
+ * <p>
+ * Tokens are loaded from the backing store once (normally off the main thread when a conversation starts) and served
+ * from memory afterwards. Entries are invalidated when the player updates their token, when the
+ * provider rejects it, and when the player logs out.
+ */
+public class ChatBotTokenCache {
+
+    /**
+     * Cached tokens: player UUID → (platform → token).
+     */
+    private static final Map<UUID, Map<String, String>> tokens = new ConcurrentHashMap<>();
+
+    /**
+     * HTTP 401/403 as a standalone number, so durations or request ids containing those digits do not match.
+     */
+    private static final Pattern AUTH_STATUS = Pattern.compile("(?<![\\w.])40[13](?!\\w|\\.\\d)");
+
+    /**
+     * Returns the player's token for a platform, loading it from the backing store on a miss.
+     *
+     * @param playerId player UUID
+     * @param platform AI platform
+     * @return the token, or {@code null} if the player has none
+     */
+    public static String get(UUID playerId, String platform) {
+        String token = getCached(playerId, platform);
+        return token != null ? token : load(playerId, platform);
+    }
+
+    /**
+     * Returns the player's cached token for a platform without touching the backing store.
+     *
+     * @param playerId player UUID
+     * @param platform AI platform
+     * @return the cached token, or {@code null} on a miss
+     */
+    public static String getCached(UUID playerId, String platform) {
+        Map<String, String> byPlatform = tokens.get(playerId);
+        return byPlatform != null ? byPlatform.get(platform) : null;
+    }
+
+    /**
+     * Loads the player's token from the backing store and caches it.
+     * Performs blocking I/O and must be called off the main thread.
+     *
+     * @param playerId player UUID
+     * @param platform AI platform
+     * @return the token, or {@code null} if the player has none (nothing is cached then)
+     */
+    public static String load(UUID playerId, String platform) {
+        String token = MCEngineArtificialIntelligenceCommon.getApi().getPlayerToken(playerId.toString(), platform);
+        if (token == null || token.isEmpty()) {
+            invalidate(playerId, platform);
+            return null;
+        }
+        tokens.computeIfAbsent(playerId, id -> new ConcurrentHashMap<>()).put(platform, token);
+        return token;
+    }
+
+    /**
+     * Drops the cached token of one platform.
+     *
+     * @param playerId player UUID
+     * @param platform AI platform
+     */
+    public static void invalidate(UUID playerId, String platform) {
+        Map<String, String> byPlatform = tokens.get(playerId);
+        if (byPlatform != null) byPlatform.remove(platform);
+    }
+
+    /**
+     * Drops all cached tokens of a player.
+     *
+     * @param playerId player UUID
+     */
+    public static void invalidate(UUID playerId) {
+        tokens.remove(playerId);
+    }
+
+    /**
+     * Heuristically detects provider authentication failures from an exception message.
+     *
+     * @param error the failure
+     * @return {@code true} if the failure looks like a rejected token
+     */
+    public static boolean isAuthError(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            String message = t.getMessage();
+            if (message == null) continue;
+            String lower = message.toLowerCase();
+            if (AUTH_STATUS.matcher(lower).find() || lower.contains("unauthorized")
+                    || lower.contains("forbidden") || lower.contains("invalid api key") || lower.contains("invalid_api_key")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -7,6 +7,8 @@ import org.bukkit.configuration.file.YamlConfiguration;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Utility class for creating default configuration and data files
@@ -45,7 +47,52 @@ public class ChatBotUtil {
             "  mail.type: Options are \"gmail\" or \"outlook\".\n" +
             "  mail.email: The sender's email address.\n" +
             "  mail.password: App password for SMTP login.\n" +
-            "  mail.owner: Optional fallback address (currently not used)."
+            "  mail.owner: Optional fallback address (currently not used).\n\n" +
+            "Group Conversation:\n" +
+            "  group.max.members: Maximum players (leader included) in one shared session.\n" +
+            "  group.batch.window.ms: Time window used to batch member messages into one request.\n" +
+            "  group.max.history.chars: Shared history kept per group; the oldest exchanges are dropped first.\n\n" +
+            "Request Dispatch:\n" +
+            "  dispatch.concurrency.per.provider: Maximum concurrent requests per platform (0 = no cap).\n" +
+            "  dispatch.queue.timeout.ms: How long a request waits for a free slot before failing.\n\n" +
+            "Shutdown:\n" +
+            "  shutdown.timeout.ms: Maximum time to wait for in-flight AI requests and emails on unload.\n\n" +
+            "Cross-Server Sessions:\n" +
+            "  session.sync.enable: Save sessions to the shared database on quit and shutdown and restore them on join.\n" +
+            "  session.sync.max.history.chars: Most recent history characters kept when saving.\n" +
+            "  session.sync.join.timeout.ms: Maximum wait on join for the previous server to release the session.\n\n" +
+            "Message Filter (applied before any provider call):\n" +
+            "  filter.blocklist: Case-insensitive terms that are never sent to the AI.\n" +
+            "  filter.blocklist.whole.words: Match terms as whole words only. If false, terms match anywhere,\n" +
+            "    including inside other words (e.g. 'ass' would also block 'class').\n" +
+            "  filter.min.length / filter.max.length: Accepted message length range.\n" +
+            "  filter.duplicate.window.ms: Window in which repeating a recent message is suppressed.\n" +
+            "  filter.duplicate.history: Number of recent messages compared per player.\n\n" +
+            "Player Context (game state attached to prompts):\n" +
+            "  context.enable: Attach a snapshot of the player's state to each message (off by default).\n" +
+            "  context.providers: Enabled providers (location, biome, health, held_item, nearby_entities).\n" +
+            "  context.cache.ttl.ms: How long a snapshot is reused before a new one is taken.\n" +
+            "  context.capture.timeout.ms: Maximum wait for a main-thread snapshot before using the last one.\n" +
+            "  context.max.chars: Maximum snapshot length.\n" +
+            "  context.nearby.radius / context.nearby.max: Search radius (at most 32) and entity cap for nearby_entities.\n\n" +
+            "Audit Log (JSON lines in the audit folder next to this config):\n" +
+            "  audit.enable: Record every prompt and reply for moderation.\n" +
+            "  audit.buffer.size: Records buffered in memory; new records are dropped when full.\n" +
+            "  audit.rotate.max.bytes / audit.rotate.interval.ms: Rotate the active file by size or age.\n" +
+            "  audit.max.files: Number of gzip-compressed rotated files kept.\n\n" +
+            "Tool Calling:\n" +
+            "  tools.enable: Let the model call registered server tools during a turn.\n" +
+            "  tools.max.iterations: Maximum model requests per player message.\n" +
+            "  tools.timeout.ms: Time budget for a whole turn including tool execution.\n\n" +
+            "Reply Rendering:\n" +
+            "  render.enable: Render Markdown replies as formatted, paginated chat components.\n" +
+            "  render.line.width / render.page.lines: Characters per line and lines per page.\n" +
+            "  render.cache.replies: Rendered replies kept per player for page navigation.\n\n" +
+            "Idle Sessions (spill files in the sessions folder next to this config):\n" +
+            "  session.idle.enable: Move idle conversations out of memory; they reload when the player chats again.\n" +
+            "  session.idle.timeout.ms: Idle time (online or offline) before a conversation is spilled.\n" +
+            "  session.idle.sweep.interval.ms: How often idle and oversized sessions are checked.\n" +
+            "  session.memory.max.bytes: Estimated in-memory conversation size above which the coldest are spilled (0 = no cap)."
         );
 
         config.set("license", "free");
@@ -56,6 +103,44 @@ public class ChatBotUtil {
         config.set("mail.email", "your-email@gmail.com");
         config.set("mail.password", "your-app-password");
         config.set("mail.owner", "owner@example.com");
+        config.set("group.max.members", 5);
+        config.set("group.batch.window.ms", 1500);
+        config.set("group.max.history.chars", 16384);
+        config.set("dispatch.concurrency.per.provider", 0);
+        config.set("dispatch.queue.timeout.ms", 10000);
+        config.set("shutdown.timeout.ms", 5000);
+        config.set("session.sync.enable", false);
+        config.set("session.sync.max.history.chars", 32768);
+        config.set("session.sync.join.timeout.ms", 10000);
+        config.set("filter.blocklist", new ArrayList<String>());
+        config.set("filter.blocklist.whole.words", true);
+        config.set("filter.min.length", 1);
+        config.set("filter.max.length", 1000);
+        config.set("filter.duplicate.window.ms", 10000);
+        config.set("filter.duplicate.history", 3);
+        config.set("context.enable", false);
+        config.set("context.providers", List.of("location", "biome", "health", "held_item", "nearby_entities"));
+        config.set("context.cache.ttl.ms", 1000);
+        config.set("context.capture.timeout.ms", 250);
+        config.set("context.max.chars", 512);
+        config.set("context.nearby.radius", 16.0);
+        config.set("context.nearby.max", 32);
+        config.set("audit.enable", false);
+        config.set("audit.buffer.size", 8192);
+        config.set("audit.rotate.max.bytes", 10485760);
+        config.set("audit.rotate.interval.ms", 86400000);
+        config.set("audit.max.files", 30);
+        config.set("tools.enable", false);
+        config.set("tools.max.iterations", 3);
+        config.set("tools.timeout.ms", 30000);
+        config.set("render.enable", true);
+        config.set("render.line.width", 55);
+        config.set("render.page.lines", 10);
+        config.set("render.cache.replies", 3);
+        config.set("session.idle.enable", true);
+        config.set("session.idle.timeout.ms", 1800000);
+        config.set("session.idle.sweep.interval.ms", 60000);
+        config.set("session.memory.max.bytes", 67108864);
 
         try {
             config.save(configFile);